@@ -0,0 +1,61 @@
+package ru.nsu.ryzhneva.bench;
+
+/**
+ * Тип ключей в бенчмарках.
+ */
+public enum KeyType {
+    /**
+     * Упакованные целые числа.
+     */
+    INTEGER {
+        @Override
+        Object key(int id) {
+            return id;
+        }
+    },
+    /**
+     * Строки вида {@code "key123"}.
+     */
+    STRING {
+        @Override
+        Object key(int id) {
+            return "key" + id;
+        }
+    },
+    /**
+     * Ключи, у которых по {@value #COLLISION_GROUP} штук
+     * совпадает {@code hashCode()}.
+     */
+    COLLIDING {
+        @Override
+        Object key(int id) {
+            return new CollidingKey(id);
+        }
+    };
+
+    /**
+     * Количество ключей с одинаковым хеш-кодом.
+     */
+    static final int COLLISION_GROUP = 16;
+
+    /**
+     * Создает ключ с заданным номером. Разные номера дают неравные ключи.
+     *
+     * @param id Номер ключа.
+     * @return Ключ.
+     */
+    abstract Object key(int id);
+
+    /**
+     * Ключ с намеренно плохим хеш-кодом. Не реализует {@link Comparable},
+     * поэтому ячейки-деревья не могут упорядочить его по ключу.
+     *
+     * @param id Номер ключа.
+     */
+    record CollidingKey(int id) {
+        @Override
+        public int hashCode() {
+            return id / COLLISION_GROUP;
+        }
+    }
+}
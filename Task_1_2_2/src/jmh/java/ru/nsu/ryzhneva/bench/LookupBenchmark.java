@@ -0,0 +1,77 @@
+package ru.nsu.ryzhneva.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Поиск по заполненной таблице с заданной долей попаданий.
+ * Запрашиваемые ключи заранее перемешаны, поэтому обращения к памяти
+ * не идут по порядку вставки.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+    private static final int PROBES = 1 << 16;
+
+    @Param({"HASH_TABLE", "OPEN_ADDRESSING", "JDK_HASH_MAP"})
+    private TableKind kind;
+
+    @Param({"INTEGER", "STRING", "COLLIDING"})
+    private KeyType keyType;
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"1.0", "0.5", "0.0"})
+    private double hitRatio;
+
+    private TableKind.Ops table;
+    private Object[] probes;
+    private int cursor = 0;
+
+    /**
+     * Заполняет таблицу и готовит ключи для поиска.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        table = kind.create();
+        for (int i = 0; i < size; i++) {
+            table.put(keyType.key(i), i);
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        probes = new Object[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            boolean hit = random.nextDouble() < hitRatio;
+            int id = hit ? random.nextInt(size) : size + random.nextInt(size);
+            probes[i] = keyType.key(id);
+        }
+    }
+
+    /**
+     * Один вызов {@code get()}.
+     *
+     * @return Найденное значение.
+     */
+    @Benchmark
+    public Object get() {
+        Object key = probes[cursor];
+        cursor = (cursor + 1) & (PROBES - 1);
+        return table.get(key);
+    }
+}
@@ -0,0 +1,129 @@
+package ru.nsu.ryzhneva.bench;
+
+import java.util.HashMap;
+import java.util.Map;
+import ru.nsu.ryzhneva.hashtable.Entry;
+import ru.nsu.ryzhneva.hashtable.HashTable;
+import ru.nsu.ryzhneva.hashtable.OpenAddressingHashTable;
+import ru.nsu.ryzhneva.hashtable.Table;
+
+/**
+ * Реализация таблицы, которую измеряет бенчмарк.
+ * В каждом форке JMH загружается только одна реализация,
+ * поэтому вызовы через {@link Ops} остаются мономорфными.
+ */
+public enum TableKind {
+    /**
+     * Таблица с цепочками.
+     */
+    HASH_TABLE {
+        @Override
+        Ops create() {
+            return new TableOps(new HashTable<>());
+        }
+    },
+    /**
+     * Таблица с цепочками и постепенным расширением.
+     */
+    HASH_TABLE_INCREMENTAL {
+        @Override
+        Ops create() {
+            return new TableOps(new HashTable<>(true));
+        }
+    },
+    /**
+     * Таблица с открытой адресацией.
+     */
+    OPEN_ADDRESSING {
+        @Override
+        Ops create() {
+            return new TableOps(new OpenAddressingHashTable<>());
+        }
+    },
+    /**
+     * {@link HashMap} из JDK, базовая линия.
+     */
+    JDK_HASH_MAP {
+        @Override
+        Ops create() {
+            return new MapOps(new HashMap<>());
+        }
+    };
+
+    /**
+     * Создает пустую таблицу.
+     *
+     * @return Операции над новой таблицей.
+     */
+    abstract Ops create();
+
+    /**
+     * Общий набор операций, который измеряют бенчмарки.
+     */
+    interface Ops {
+        Object put(Object key, Object value);
+
+        Object get(Object key);
+
+        Object remove(Object key);
+
+        /**
+         * Обходит все пары.
+         *
+         * @return Сумма хеш-кодов значений, чтобы обход не был удален JIT.
+         */
+        long iterate();
+    }
+
+    private record TableOps(Table<Object, Object> table) implements Ops {
+        @Override
+        public Object put(Object key, Object value) {
+            return table.put(key, value);
+        }
+
+        @Override
+        public Object get(Object key) {
+            return table.get(key);
+        }
+
+        @Override
+        public Object remove(Object key) {
+            return table.remove(key);
+        }
+
+        @Override
+        public long iterate() {
+            long sum = 0;
+            for (Entry<Object, Object> entry : table) {
+                sum += entry.getValue().hashCode();
+            }
+            return sum;
+        }
+    }
+
+    private record MapOps(Map<Object, Object> map) implements Ops {
+        @Override
+        public Object put(Object key, Object value) {
+            return map.put(key, value);
+        }
+
+        @Override
+        public Object get(Object key) {
+            return map.get(key);
+        }
+
+        @Override
+        public Object remove(Object key) {
+            return map.remove(key);
+        }
+
+        @Override
+        public long iterate() {
+            long sum = 0;
+            for (Map.Entry<Object, Object> entry : map.entrySet()) {
+                sum += entry.getValue().hashCode();
+            }
+            return sum;
+        }
+    }
+}
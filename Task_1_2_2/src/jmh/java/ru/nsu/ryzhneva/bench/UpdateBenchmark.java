@@ -0,0 +1,104 @@
+package ru.nsu.ryzhneva.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Вставка, удаление и обход. Ключи создаются заранее,
+ * поэтому их создание не попадает в замер.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UpdateBenchmark {
+    private static final int PROBES = 1 << 16;
+
+    @Param({"HASH_TABLE", "HASH_TABLE_INCREMENTAL", "OPEN_ADDRESSING", "JDK_HASH_MAP"})
+    private TableKind kind;
+
+    @Param({"INTEGER", "STRING", "COLLIDING"})
+    private KeyType keyType;
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private Object[] keys;
+    private Object[] probes;
+    private TableKind.Ops filled;
+    private int cursor = 0;
+
+    /**
+     * Создает ключи и заполненную таблицу.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new Object[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = keyType.key(i);
+        }
+        filled = kind.create();
+        for (int i = 0; i < size; i++) {
+            filled.put(keys[i], i);
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        probes = new Object[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probes[i] = keys[random.nextInt(size)];
+        }
+    }
+
+    /**
+     * Заполняет пустую таблицу всеми ключами, включая все расширения.
+     *
+     * @return Заполненная таблица.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public TableKind.Ops putAll() {
+        TableKind.Ops table = kind.create();
+        for (int i = 0; i < keys.length; i++) {
+            table.put(keys[i], i);
+        }
+        return table;
+    }
+
+    /**
+     * Удаляет существующий ключ и сразу возвращает его,
+     * чтобы размер таблицы не менялся между вызовами.
+     *
+     * @return Результат вставки.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object removeAndPut() {
+        Object key = probes[cursor];
+        cursor = (cursor + 1) & (PROBES - 1);
+        Object value = filled.remove(key);
+        return filled.put(key, value);
+    }
+
+    /**
+     * Обходит все пары заполненной таблицы.
+     *
+     * @return Контрольная сумма обхода.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long iterate() {
+        return filled.iterate();
+    }
+}
@@ -0,0 +1,97 @@
+package ru.nsu.ryzhneva.hashtable;
+
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * Базовый класс таблиц с общими реализациями
+ * {@code equals}, {@code hashCode} и {@code toString}.
+ *
+ * @param <K> Тип ключа.
+ * @param <V> Тип значения.
+ */
+public abstract class AbstractTable<K, V> implements Table<K, V> {
+
+    /**
+     * Сравнивает эту таблицу с другой.
+     * Таблицы равны, если содержат одинаковые пары,
+     * независимо от реализации.
+     *
+     * @param o Объект для сравнения.
+     * @return {@code true}, если таблицы равны, иначе {@code false}.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Table)) {
+            return false;
+        }
+
+        Table<K, V> otherTable = (Table<K, V>) o;
+
+        if (otherTable.size() != this.size()) {
+            return false;
+        }
+
+        try {
+            for (Entry<K, V> entry : this) {
+                K key = entry.getKey();
+                V value = entry.getValue();
+                Object otherTableValue = otherTable.get(key);
+
+                if (!Objects.equals(value, otherTableValue)) {
+                    return false;
+                }
+                if (value == null && !otherTable.check(key)) {
+                    return false;
+                }
+            }
+        } catch (NullPointerException | ClassCastException e) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Возвращает хеш-код таблицы, согласованный с {@link #equals(Object)}.
+     *
+     * @return Сумма хеш-кодов всех пар.
+     */
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (Entry<K, V> entry : this) {
+            h += Objects.hashCode(entry.getKey()) ^ Objects.hashCode(entry.getValue());
+        }
+        return h;
+    }
+
+    /**
+     * Возвращает строковое представление таблицы в формате {k1=v1, k2=v2}.
+     *
+     * @return Строковое представление.
+     */
+    @Override
+    public String toString() {
+        if (size() == 0) {
+            return "{}";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+
+        Iterator<Entry<K, V>> iter = iterator();
+        while (iter.hasNext()) {
+            Entry<K, V> entry = iter.next();
+            sb.append(entry.getKey()).append("=").append(entry.getValue());
+            if (iter.hasNext()) {
+                sb.append(", ");
+            }
+        }
+
+        sb.append("}");
+        return sb.toString();
+    }
+}
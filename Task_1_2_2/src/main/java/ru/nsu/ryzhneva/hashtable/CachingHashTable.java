@@ -0,0 +1,325 @@
+package ru.nsu.ryzhneva.hashtable;
+
+/**
+ * Хеш-таблица с ограниченным размером, вытесняющая пары как кеш.
+ * Узлы таблицы сами связаны в списки порядка доступа, поэтому
+ * отдельная структура для учета обращений не нужна, а перемещение
+ * и вытеснение занимают O(1).
+ *
+ * <p>По умолчанию вытесняется давно не использованная пара (LRU).
+ * С политикой W-TinyLFU новые пары попадают в небольшое окно LRU
+ * ({@value #WINDOW_PERCENT}% объема), а вытесненные из окна допускаются
+ * в основную область, только если по оценке {@link FrequencySketch}
+ * к ним обращались чаще, чем к кандидату на вытеснение из нее.
+ * Основная область делится на испытательный и защищенный
+ * ({@value #PROTECTED_PERCENT}%) сегменты: повторное обращение переводит
+ * пару в защищенный сегмент. Так редкие ключи не вытесняют популярные.
+ *
+ * <p>Ограничение задается числом пар или суммарным весом ({@link Weigher}).
+ * {@code get()} и замена значения считаются обращением,
+ * {@code check()} — нет.
+ *
+ * @param <K> Тип ключа.
+ * @param <V> Тип значения.
+ */
+public class CachingHashTable<K, V> extends HashTable<K, V> {
+    private static final int WINDOW_PERCENT = 1;
+    private static final int PROTECTED_PERCENT = 80;
+    private static final byte WINDOW = 0;
+    private static final byte PROBATION = 1;
+    private static final byte PROTECTED = 2;
+
+    private final long maximumWeight;
+    private final Weigher<? super K, ? super V> weigher;
+    private final FrequencySketch sketch;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private final AccessOrder<K, V> window = new AccessOrder<>();
+    private final AccessOrder<K, V> probation = new AccessOrder<>();
+    private final AccessOrder<K, V> protectedOrder = new AccessOrder<>();
+    private long weightedSize = 0;
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    /**
+     * Узел, связанный с соседями по порядку доступа.
+     */
+    private static final class CacheNode<K, V> extends Node<K, V> {
+        CacheNode<K, V> before;
+        CacheNode<K, V> after;
+        int weight;
+        byte queue = WINDOW;
+
+        CacheNode(K key, V value, int hash) {
+            super(key, value, hash, null);
+        }
+    }
+
+    /**
+     * Двусвязный список узлов от давно использованного к недавнему.
+     */
+    private static final class AccessOrder<K, V> {
+        CacheNode<K, V> head;
+        CacheNode<K, V> tail;
+        long weight;
+
+        void addLast(CacheNode<K, V> node) {
+            node.before = tail;
+            node.after = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.after = node;
+            }
+            tail = node;
+            weight += node.weight;
+        }
+
+        void remove(CacheNode<K, V> node) {
+            if (node.before == null) {
+                head = node.after;
+            } else {
+                node.before.after = node.after;
+            }
+            if (node.after == null) {
+                tail = node.before;
+            } else {
+                node.after.before = node.before;
+            }
+            node.before = null;
+            node.after = null;
+            weight -= node.weight;
+        }
+
+        void moveToLast(CacheNode<K, V> node) {
+            if (node != tail) {
+                remove(node);
+                addLast(node);
+            }
+        }
+    }
+
+    /**
+     * Счетчики кеша.
+     *
+     * @param hitCount      Количество найденных ключей.
+     * @param missCount     Количество ненайденных ключей.
+     * @param evictionCount Количество вытесненных пар.
+     */
+    public record Stats(long hitCount, long missCount, long evictionCount) {
+
+        /**
+         * Возвращает долю успешных поисков.
+         *
+         * @return Доля от 0 до 1; {@code 1}, если поисков не было.
+         */
+        public double hitRate() {
+            long requests = hitCount + missCount;
+            return (requests == 0) ? 1.0 : (double) hitCount / requests;
+        }
+    }
+
+    /**
+     * Создает LRU-кеш, ограниченный числом пар.
+     *
+     * @param maximumSize Максимальное количество пар.
+     * @throws IllegalArgumentException если размер отрицателен.
+     */
+    public CachingHashTable(int maximumSize) {
+        this(maximumSize, false);
+    }
+
+    /**
+     * Создает кеш, ограниченный числом пар.
+     *
+     * @param maximumSize Максимальное количество пар.
+     * @param tinyLfu     {@code true}, чтобы включить политику W-TinyLFU.
+     * @throws IllegalArgumentException если размер отрицателен.
+     */
+    public CachingHashTable(int maximumSize, boolean tinyLfu) {
+        this(maximumSize, (key, value) -> 1, tinyLfu);
+    }
+
+    /**
+     * Создает кеш, ограниченный суммарным весом пар.
+     *
+     * @param maximumWeight Максимальный суммарный вес.
+     * @param weigher       Функция веса пары.
+     * @param tinyLfu       {@code true}, чтобы включить политику W-TinyLFU.
+     * @throws IllegalArgumentException если вес отрицателен.
+     */
+    public CachingHashTable(long maximumWeight, Weigher<? super K, ? super V> weigher,
+                            boolean tinyLfu) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("Maximum weight must be non-negative.");
+        }
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        if (tinyLfu) {
+            this.sketch = new FrequencySketch();
+            this.windowMaximum = Math.max(1, maximumWeight * WINDOW_PERCENT / 100);
+            this.protectedMaximum = (maximumWeight - windowMaximum) * PROTECTED_PERCENT / 100;
+        } else {
+            this.sketch = null;
+            this.windowMaximum = maximumWeight;
+            this.protectedMaximum = 0;
+        }
+    }
+
+    @Override
+    Node<K, V> newNode(K key, V value, int hash) {
+        CacheNode<K, V> node = new CacheNode<>(key, value, hash);
+        node.weight = weigh(node);
+        return node;
+    }
+
+    @Override
+    void afterNodeLookup(Node<K, V> node) {
+        if (node == null) {
+            missCount++;
+            return;
+        }
+        hitCount++;
+        onAccess((CacheNode<K, V>) node);
+    }
+
+    @Override
+    void afterNodeAccess(Node<K, V> node) {
+        CacheNode<K, V> cacheNode = (CacheNode<K, V>) node;
+        int weight = weigh(cacheNode);
+        if (weight != cacheNode.weight) {
+            AccessOrder<K, V> order = orderOf(cacheNode);
+            order.remove(cacheNode);
+            weightedSize += weight - cacheNode.weight;
+            cacheNode.weight = weight;
+            order.addLast(cacheNode);
+        }
+        onAccess(cacheNode);
+        evict();
+    }
+
+    @Override
+    void afterNodeInsertion(Node<K, V> node) {
+        CacheNode<K, V> cacheNode = (CacheNode<K, V>) node;
+        weightedSize += cacheNode.weight;
+        window.addLast(cacheNode);
+        if (sketch != null) {
+            sketch.ensureCapacity(size());
+            sketch.increment(node.hash);
+        }
+        evict();
+    }
+
+    @Override
+    void afterNodeRemoval(Node<K, V> node) {
+        CacheNode<K, V> cacheNode = (CacheNode<K, V>) node;
+        orderOf(cacheNode).remove(cacheNode);
+        weightedSize -= cacheNode.weight;
+    }
+
+    private int weigh(CacheNode<K, V> node) {
+        int weight = weigher.weigh(node.key, node.value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight must be non-negative.");
+        }
+        return weight;
+    }
+
+    private AccessOrder<K, V> orderOf(CacheNode<K, V> node) {
+        switch (node.queue) {
+            case PROBATION:
+                return probation;
+            case PROTECTED:
+                return protectedOrder;
+            default:
+                return window;
+        }
+    }
+
+    /**
+     * Переставляет узел после обращения к нему.
+     */
+    private void onAccess(CacheNode<K, V> node) {
+        if (sketch == null) {
+            window.moveToLast(node);
+            return;
+        }
+        sketch.increment(node.hash);
+        if (node.queue == PROBATION) {
+            probation.remove(node);
+            node.queue = PROTECTED;
+            protectedOrder.addLast(node);
+            while (protectedOrder.weight > protectedMaximum && protectedOrder.head != node) {
+                CacheNode<K, V> demoted = protectedOrder.head;
+                protectedOrder.remove(demoted);
+                demoted.queue = PROBATION;
+                probation.addLast(demoted);
+            }
+        } else {
+            orderOf(node).moveToLast(node);
+        }
+    }
+
+    /**
+     * Вытесняет пары, пока суммарный вес превышает ограничение.
+     */
+    private void evict() {
+        if (sketch == null) {
+            while (weightedSize > maximumWeight) {
+                evictNode(window.head);
+            }
+            return;
+        }
+        CacheNode<K, V> candidate = null;
+        while (window.weight > windowMaximum && window.head != null) {
+            CacheNode<K, V> moved = window.head;
+            window.remove(moved);
+            moved.queue = PROBATION;
+            probation.addLast(moved);
+            if (candidate == null) {
+                candidate = moved;
+            }
+        }
+        while (weightedSize > maximumWeight) {
+            CacheNode<K, V> victim = (probation.head != null) ? probation.head
+                    : (protectedOrder.head != null) ? protectedOrder.head
+                    : window.head;
+            if (candidate == null || victim == candidate) {
+                if (victim == candidate) {
+                    candidate = candidate.after;
+                }
+                evictNode(victim);
+            } else if (sketch.frequency(candidate.hash) > sketch.frequency(victim.hash)) {
+                evictNode(victim);
+            } else {
+                CacheNode<K, V> next = candidate.after;
+                evictNode(candidate);
+                candidate = next;
+            }
+        }
+    }
+
+    private void evictNode(CacheNode<K, V> node) {
+        remove(node.key);
+        evictionCount++;
+    }
+
+    /**
+     * Возвращает суммарный вес пар.
+     *
+     * @return Вес; при ограничении числом пар равен размеру.
+     */
+    public long weightedSize() {
+        return weightedSize;
+    }
+
+    /**
+     * Возвращает снимок счетчиков кеша.
+     *
+     * @return Счетчики попаданий, промахов и вытеснений.
+     */
+    public Stats stats() {
+        return new Stats(hitCount, missCount, evictionCount);
+    }
+}
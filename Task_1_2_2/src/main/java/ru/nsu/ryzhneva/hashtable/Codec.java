@@ -0,0 +1,41 @@
+package ru.nsu.ryzhneva.hashtable;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Преобразование объектов в запись фиксированной длины и обратно.
+ * Равные объекты должны кодироваться одинаковыми байтами:
+ * таблицы вне кучи сравнивают и хешируют ключи по их байтам.
+ *
+ * @param <T> Тип кодируемых объектов.
+ */
+public interface Codec<T> {
+
+    /**
+     * Возвращает длину записи в байтах.
+     *
+     * @return Количество байт, занимаемых одним объектом.
+     */
+    int width();
+
+    /**
+     * Записывает объект в буфер по абсолютному смещению.
+     * Позиция буфера не меняется.
+     *
+     * @param buffer Буфер.
+     * @param offset Смещение начала записи.
+     * @param value  Объект, не {@code null}.
+     * @throws IllegalArgumentException если объект не помещается в запись.
+     */
+    void write(ByteBuffer buffer, int offset, T value);
+
+    /**
+     * Читает объект из буфера по абсолютному смещению.
+     * Позиция буфера не меняется.
+     *
+     * @param buffer Буфер.
+     * @param offset Смещение начала записи.
+     * @return Прочитанный объект.
+     */
+    T read(ByteBuffer buffer, int offset);
+}
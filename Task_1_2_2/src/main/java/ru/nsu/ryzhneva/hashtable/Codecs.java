@@ -0,0 +1,103 @@
+package ru.nsu.ryzhneva.hashtable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Стандартные реализации {@link Codec}.
+ */
+public final class Codecs {
+
+    private Codecs() {
+    }
+
+    /**
+     * Возвращает кодек для {@link Integer} (4 байта).
+     *
+     * @return Кодек целых чисел.
+     */
+    public static Codec<Integer> ints() {
+        return new Codec<>() {
+            @Override
+            public int width() {
+                return Integer.BYTES;
+            }
+
+            @Override
+            public void write(ByteBuffer buffer, int offset, Integer value) {
+                buffer.putInt(offset, value);
+            }
+
+            @Override
+            public Integer read(ByteBuffer buffer, int offset) {
+                return buffer.getInt(offset);
+            }
+        };
+    }
+
+    /**
+     * Возвращает кодек для {@link Long} (8 байт).
+     *
+     * @return Кодек длинных целых чисел.
+     */
+    public static Codec<Long> longs() {
+        return new Codec<>() {
+            @Override
+            public int width() {
+                return Long.BYTES;
+            }
+
+            @Override
+            public void write(ByteBuffer buffer, int offset, Long value) {
+                buffer.putLong(offset, value);
+            }
+
+            @Override
+            public Long read(ByteBuffer buffer, int offset) {
+                return buffer.getLong(offset);
+            }
+        };
+    }
+
+    /**
+     * Возвращает кодек строк в UTF-8 с длиной в первых двух байтах.
+     * Неиспользованный хвост записи заполняется нулями.
+     *
+     * @param maxBytes Максимальная длина строки в байтах UTF-8.
+     * @return Кодек строк.
+     * @throws IllegalArgumentException если {@code maxBytes} вне 0...65535.
+     */
+    public static Codec<String> strings(int maxBytes) {
+        if (maxBytes < 0 || maxBytes > 0xFFFF) {
+            throw new IllegalArgumentException("maxBytes must be in 0...65535.");
+        }
+        return new Codec<>() {
+            @Override
+            public int width() {
+                return Short.BYTES + maxBytes;
+            }
+
+            @Override
+            public void write(ByteBuffer buffer, int offset, String value) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > maxBytes) {
+                    throw new IllegalArgumentException(
+                            "The string is longer than " + maxBytes + " bytes.");
+                }
+                buffer.putShort(offset, (short) bytes.length);
+                for (int i = 0; i < maxBytes; i++) {
+                    buffer.put(offset + Short.BYTES + i, (i < bytes.length) ? bytes[i] : 0);
+                }
+            }
+
+            @Override
+            public String read(ByteBuffer buffer, int offset) {
+                byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort(offset))];
+                for (int i = 0; i < bytes.length; i++) {
+                    bytes[i] = buffer.get(offset + Short.BYTES + i);
+                }
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+}
@@ -0,0 +1,467 @@
+package ru.nsu.ryzhneva.hashtable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Потокобезопасная хеш-таблица.
+ * Чтение ({@code get()}, {@code check()}) выполняется без блокировок:
+ * ячейки массива публикуются через {@link VarHandle}, а поля узлов volatile.
+ * Запись блокирует только одну ячейку (монитор первого узла цепочки),
+ * пустая ячейка заполняется через CAS. Расширение выполняется совместно:
+ * каждый поток, встретивший перенесенную ячейку, забирает себе
+ * диапазон ячеек и переносит его в новый массив.
+ *
+ * <p>Итератор слабо согласован: он не выбрасывает
+ * {@link java.util.ConcurrentModificationException} и отражает
+ * состояние таблицы на некоторый момент обхода каждой ячейки.
+ * Ключи и значения {@code null} не поддерживаются, так как {@code null}
+ * из {@code get()} не отличить от отсутствия ключа.
+ *
+ * @param <K> Тип ключа.
+ * @param <V> Тип значения.
+ */
+public class ConcurrentHashTable<K, V> extends AbstractTable<K, V> {
+    private static final int DEF_INIT_CAP = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MIN_TRANSFER_STRIDE = 16;
+    private static final int MOVED = -1;
+    private static final int NCPU = Runtime.getRuntime().availableProcessors();
+    private static final VarHandle CELL =
+            MethodHandles.arrayElementVarHandle(CNode[].class);
+
+    private volatile CNode<K, V>[] table;
+    private volatile Transfer<K, V> transfer;
+    private final AtomicBoolean resizing = new AtomicBoolean(false);
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Узел цепочки.
+     */
+    private static class CNode<K, V> implements Entry<K, V> {
+        final int hash;
+        final K key;
+        volatile V value;
+        volatile CNode<K, V> next;
+
+        CNode(int hash, K key, V value, CNode<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * Маркер ячейки, уже перенесенной в новый массив.
+     */
+    private static final class ForwardingNode<K, V> extends CNode<K, V> {
+        final Transfer<K, V> transfer;
+
+        ForwardingNode(Transfer<K, V> transfer) {
+            super(MOVED, null, null, null);
+            this.transfer = transfer;
+        }
+    }
+
+    /**
+     * Состояние одного расширения: откуда и куда переносятся ячейки.
+     */
+    private static final class Transfer<K, V> {
+        final CNode<K, V>[] src;
+        final CNode<K, V>[] dst;
+        final ForwardingNode<K, V> forward;
+        final int stride;
+        final AtomicInteger nextIndex = new AtomicInteger(0);
+        final AtomicInteger done = new AtomicInteger(0);
+
+        Transfer(CNode<K, V>[] src, CNode<K, V>[] dst) {
+            this.src = src;
+            this.dst = dst;
+            this.forward = new ForwardingNode<>(this);
+            this.stride = Math.min(src.length,
+                    Math.max(src.length / (4 * NCPU), MIN_TRANSFER_STRIDE));
+        }
+    }
+
+    /**
+     * Ячейка массива, ожидающая обхода итератором.
+     */
+    private record Bin<K, V>(CNode<K, V>[] tab, int index) {}
+
+    /**
+     * Создает пустую таблицу с начальной емкостью {@value #DEF_INIT_CAP}.
+     */
+    public ConcurrentHashTable() {
+        this.table = (CNode<K, V>[]) new CNode[DEF_INIT_CAP];
+    }
+
+    /**
+     * Рассчитывает неотрицательный хеш-код для ключа.
+     * Отрицательные значения зарезервированы для служебных узлов.
+     *
+     * @param key Ключ для хеширования.
+     * @return Улучшенный хеш-код.
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & Integer.MAX_VALUE;
+    }
+
+    private static <K, V> CNode<K, V> tabAt(CNode<K, V>[] tab, int i) {
+        return (CNode<K, V>) CELL.getAcquire(tab, i);
+    }
+
+    private static <K, V> boolean casTabAt(CNode<K, V>[] tab, int i,
+                                           CNode<K, V> expected, CNode<K, V> node) {
+        return CELL.compareAndSet(tab, i, expected, node);
+    }
+
+    private static <K, V> void setTabAt(CNode<K, V>[] tab, int i, CNode<K, V> node) {
+        CELL.setRelease(tab, i, node);
+    }
+
+    /**
+     * Находит узел по ключу без блокировок.
+     *
+     * @param key Ключ для поиска.
+     * @return Найденный узел или {@code null}.
+     */
+    private CNode<K, V> findNode(Object key) {
+        Objects.requireNonNull(key, "Null keys are not supported.");
+        int hash = hash(key);
+        CNode<K, V>[] tab = table;
+        while (true) {
+            CNode<K, V> e = tabAt(tab, (tab.length - 1) & hash);
+            if (e == null) {
+                return null;
+            }
+            if (e.hash == MOVED) {
+                tab = ((ForwardingNode<K, V>) e).transfer.dst;
+                continue;
+            }
+            for (; e != null; e = e.next) {
+                if (e.hash == hash && (e.key == key || key.equals(e.key))) {
+                    return e;
+                }
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        CNode<K, V> node = findNode(key);
+        return (node != null) ? node.value : null;
+    }
+
+    @Override
+    public boolean check(K key) {
+        return findNode(key) != null;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return putVal(key, value, false);
+    }
+
+    @Override
+    public V update(K key, V value) {
+        return putVal(key, value, true);
+    }
+
+    /**
+     * Общая реализация {@code put()} и {@code update()}.
+     *
+     * @param key        Ключ.
+     * @param value      Значение.
+     * @param onlyUpdate {@code true}, если новый ключ добавлять не нужно.
+     * @return Предыдущее значение.
+     */
+    private V putVal(K key, V value, boolean onlyUpdate) {
+        Objects.requireNonNull(key, "Null keys are not supported.");
+        Objects.requireNonNull(value, "Null values are not supported.");
+        int hash = hash(key);
+        CNode<K, V>[] tab = table;
+        while (true) {
+            int i = (tab.length - 1) & hash;
+            CNode<K, V> f = tabAt(tab, i);
+            if (f == null) {
+                if (onlyUpdate) {
+                    return null;
+                }
+                if (casTabAt(tab, i, null, new CNode<>(hash, key, value, null))) {
+                    addCount();
+                    return null;
+                }
+            } else if (f.hash == MOVED) {
+                tab = helpTransfer(((ForwardingNode<K, V>) f).transfer);
+            } else {
+                synchronized (f) {
+                    if (tabAt(tab, i) != f) {
+                        continue;
+                    }
+                    for (CNode<K, V> e = f; ; e = e.next) {
+                        if (e.hash == hash && (e.key == key || key.equals(e.key))) {
+                            V prevValue = e.value;
+                            e.value = value;
+                            return prevValue;
+                        }
+                        if (e.next == null) {
+                            if (onlyUpdate) {
+                                return null;
+                            }
+                            e.next = new CNode<>(hash, key, value, null);
+                            break;
+                        }
+                    }
+                }
+                addCount();
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public V remove(K key) {
+        Objects.requireNonNull(key, "Null keys are not supported.");
+        int hash = hash(key);
+        CNode<K, V>[] tab = table;
+        while (true) {
+            int i = (tab.length - 1) & hash;
+            CNode<K, V> f = tabAt(tab, i);
+            if (f == null) {
+                return null;
+            }
+            if (f.hash == MOVED) {
+                tab = helpTransfer(((ForwardingNode<K, V>) f).transfer);
+                continue;
+            }
+            synchronized (f) {
+                if (tabAt(tab, i) != f) {
+                    continue;
+                }
+                CNode<K, V> prev = null;
+                for (CNode<K, V> e = f; e != null; prev = e, e = e.next) {
+                    if (e.hash == hash && (e.key == key || key.equals(e.key))) {
+                        if (prev == null) {
+                            setTabAt(tab, i, e.next);
+                        } else {
+                            prev.next = e.next;
+                        }
+                        count.decrement();
+                        return e.value;
+                    }
+                }
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        long n = count.sum();
+        return (n < 0) ? 0 : (n > Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) n;
+    }
+
+    /**
+     * Учитывает новый узел и при превышении порога запускает расширение.
+     */
+    private void addCount() {
+        count.increment();
+        CNode<K, V>[] tab = table;
+        if (count.sum() > (long) (tab.length * LOAD_FACTOR)) {
+            tryResize();
+        }
+    }
+
+    /**
+     * Начинает расширение, если его еще никто не начал,
+     * иначе помогает текущему.
+     */
+    private void tryResize() {
+        if (!resizing.compareAndSet(false, true)) {
+            Transfer<K, V> current = transfer;
+            if (current != null) {
+                helpTransfer(current);
+            }
+            return;
+        }
+        CNode<K, V>[] tab = table;
+        if (count.sum() <= (long) (tab.length * LOAD_FACTOR)
+                || tab.length >= (1 << 30)) {
+            resizing.set(false);
+            return;
+        }
+        Transfer<K, V> started = new Transfer<>(tab,
+                (CNode<K, V>[]) new CNode[tab.length << 1]);
+        transfer = started;
+        helpTransfer(started);
+    }
+
+    /**
+     * Переносит свободные диапазоны ячеек, пока они есть.
+     *
+     * @param t Текущее расширение.
+     * @return Новый массив ячеек.
+     */
+    private CNode<K, V>[] helpTransfer(Transfer<K, V> t) {
+        int n = t.src.length;
+        while (true) {
+            // Диапазон захватывается через CAS, а не getAndAdd: опоздавшие
+            // помощники не должны сдвигать счетчик за n, иначе он переполнится.
+            int start = t.nextIndex.get();
+            if (start >= n) {
+                break;
+            }
+            if (!t.nextIndex.compareAndSet(start, start + t.stride)) {
+                continue;
+            }
+            int end = Math.min(start + t.stride, n);
+            for (int i = start; i < end; i++) {
+                transferBin(t, i);
+            }
+            if (t.done.addAndGet(end - start) == n) {
+                table = t.dst;
+                transfer = null;
+                resizing.set(false);
+                if (count.sum() > (long) (t.dst.length * LOAD_FACTOR)) {
+                    tryResize();
+                }
+            }
+        }
+        return t.dst;
+    }
+
+    /**
+     * Переносит одну ячейку. Узлы копируются, поэтому читатели,
+     * уже идущие по старой цепочке, видят ее целой.
+     *
+     * @param t Текущее расширение.
+     * @param i Индекс ячейки в старом массиве.
+     */
+    private void transferBin(Transfer<K, V> t, int i) {
+        CNode<K, V>[] src = t.src;
+        int n = src.length;
+        while (true) {
+            CNode<K, V> f = tabAt(src, i);
+            if (f == null) {
+                if (casTabAt(src, i, null, t.forward)) {
+                    return;
+                }
+                continue;
+            }
+            synchronized (f) {
+                if (tabAt(src, i) != f) {
+                    continue;
+                }
+                CNode<K, V> lo = null;
+                CNode<K, V> hi = null;
+                for (CNode<K, V> e = f; e != null; e = e.next) {
+                    if ((e.hash & n) == 0) {
+                        lo = new CNode<>(e.hash, e.key, e.value, lo);
+                    } else {
+                        hi = new CNode<>(e.hash, e.key, e.value, hi);
+                    }
+                }
+                setTabAt(t.dst, i, lo);
+                setTabAt(t.dst, i + n, hi);
+                setTabAt(src, i, t.forward);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Возвращает слабо согласованный итератор по парам ключ-значение.
+     *
+     * @return Итератор {@link Entry}
+     */
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        return new WeakIterator();
+    }
+
+    /**
+     * Слабо согласованный итератор. Встретив перенесенную ячейку,
+     * обходит две соответствующие ей ячейки нового массива.
+     */
+    private class WeakIterator implements Iterator<Entry<K, V>> {
+        private final CNode<K, V>[] baseTable;
+        private final Deque<Bin<K, V>> pending = new ArrayDeque<>();
+        private int baseIndex = 0;
+        private CNode<K, V> nextNode;
+
+        /**
+         * Конструктор итератора.
+         */
+        WeakIterator() {
+            this.baseTable = table;
+            advance(null);
+        }
+
+        /**
+         * Переходит к следующему узлу после {@code current}.
+         */
+        private void advance(CNode<K, V> current) {
+            CNode<K, V> e = (current != null) ? current.next : null;
+            while (e == null) {
+                Bin<K, V> bin;
+                if (!pending.isEmpty()) {
+                    bin = pending.pop();
+                } else if (baseIndex < baseTable.length) {
+                    bin = new Bin<>(baseTable, baseIndex++);
+                } else {
+                    nextNode = null;
+                    return;
+                }
+                e = tabAt(bin.tab(), bin.index());
+                if (e != null && e.hash == MOVED) {
+                    CNode<K, V>[] dst = ((ForwardingNode<K, V>) e).transfer.dst;
+                    pending.push(new Bin<>(dst, bin.index() + bin.tab().length));
+                    pending.push(new Bin<>(dst, bin.index()));
+                    e = null;
+                }
+            }
+            nextNode = e;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextNode != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (nextNode == null) {
+                throw new NoSuchElementException("There are no elements.");
+            }
+            CNode<K, V> nodeToReturn = nextNode;
+            advance(nodeToReturn);
+            return nodeToReturn;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package ru.nsu.ryzhneva.hashtable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.zip.CRC32C;
+
+/**
+ * Хеш-таблица, переживающая перезапуск процесса.
+ * Пары хранятся в обычной {@link HashTable}, а каталог на диске содержит
+ * снимок ({@link HashTableSnapshot}) и журнал упреждающей записи (WAL).
+ * Каждое изменение сначала дописывается в журнал, затем применяется
+ * к таблице. При открытии загружается снимок и проигрывается журнал,
+ * поэтому таблицу не нужно строить заново.
+ *
+ * <p>{@link #checkpoint()} сохраняет новый снимок и очищает журнал.
+ * Если процесс упадет между этими шагами, журнал проиграется поверх
+ * снимка, который уже содержит его изменения; результат от этого
+ * не меняется, так как итог определяется последней операцией над ключом.
+ *
+ * <p>Запись журнала: код операции, пара в формате снимка и CRC32C.
+ * Оборванная или поврежденная запись в конце журнала (например, после
+ * сбоя питания) отбрасывается при открытии.
+ *
+ * @param <K> Тип ключа.
+ * @param <V> Тип значения.
+ */
+public class DurableHashTable<K, V> extends AbstractTable<K, V> implements AutoCloseable {
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final String LOG_FILE = "wal.log";
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final int BATCH_RECORDS = 1024;
+
+    private final Path snapshotPath;
+    private final Codec<K> keyCodec;
+    private final Codec<V> valueCodec;
+    private final boolean syncEachWrite;
+    private final int logWidth;
+    private final ByteBuffer record;
+    private final CRC32C crc = new CRC32C();
+    private HashTable<K, V> table;
+    private FileChannel log;
+
+    private DurableHashTable(Path directory, Codec<K> keyCodec, Codec<V> valueCodec,
+                             boolean syncEachWrite) {
+        this.snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        this.syncEachWrite = syncEachWrite;
+        this.logWidth = 1 + HashTableSnapshot.recordWidth(keyCodec, valueCodec) + Integer.BYTES;
+        this.record = ByteBuffer.allocate(logWidth);
+    }
+
+    /**
+     * Открывает таблицу в каталоге или создает новую.
+     * Журнал пишется в файл без принудительного сброса на диск:
+     * изменения переживают падение процесса, но не сбой питания.
+     *
+     * @param directory  Каталог со снимком и журналом.
+     * @param keyCodec   Кодек ключей.
+     * @param valueCodec Кодек значений.
+     * @return Таблица с восстановленным содержимым.
+     * @throws IOException если файлы не удалось прочитать.
+     */
+    public static <K, V> DurableHashTable<K, V> open(Path directory, Codec<K> keyCodec,
+                                                     Codec<V> valueCodec) throws IOException {
+        return open(directory, keyCodec, valueCodec, false);
+    }
+
+    /**
+     * Открывает таблицу в каталоге или создает новую.
+     *
+     * @param directory     Каталог со снимком и журналом.
+     * @param keyCodec      Кодек ключей.
+     * @param valueCodec    Кодек значений.
+     * @param syncEachWrite {@code true}, если каждую запись журнала нужно
+     *                      сразу сбрасывать на диск.
+     * @return Таблица с восстановленным содержимым.
+     * @throws IOException              если файлы не удалось прочитать.
+     * @throws IllegalArgumentException если ширина кодеков не совпадает со снимком.
+     */
+    public static <K, V> DurableHashTable<K, V> open(Path directory, Codec<K> keyCodec,
+                                                     Codec<V> valueCodec,
+                                                     boolean syncEachWrite) throws IOException {
+        Files.createDirectories(directory);
+        DurableHashTable<K, V> durable =
+                new DurableHashTable<>(directory, keyCodec, valueCodec, syncEachWrite);
+        durable.table = Files.exists(durable.snapshotPath)
+                ? HashTableSnapshot.load(durable.snapshotPath, keyCodec, valueCodec)
+                : new HashTable<>();
+        FileChannel channel = FileChannel.open(directory.resolve(LOG_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long valid = durable.replay(channel);
+            channel.truncate(valid);
+            channel.position(valid);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        durable.log = channel;
+        return durable;
+    }
+
+    /**
+     * Применяет к таблице все целые записи журнала.
+     *
+     * @param channel Канал журнала.
+     * @return Длина журнала без оборванного хвоста.
+     * @throws IOException если журнал не удалось прочитать.
+     */
+    private long replay(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(logWidth * BATCH_RECORDS);
+        long valid = 0;
+        while (true) {
+            buffer.clear();
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, valid + buffer.position()) <= 0) {
+                    break;
+                }
+            }
+            int records = buffer.position() / logWidth;
+            for (int i = 0; i < records; i++) {
+                if (!apply(buffer, i * logWidth)) {
+                    return valid;
+                }
+                valid += logWidth;
+            }
+            if (records < BATCH_RECORDS) {
+                return valid;
+            }
+        }
+    }
+
+    /**
+     * Проверяет и применяет одну запись журнала.
+     *
+     * @return {@code false}, если запись повреждена.
+     */
+    private boolean apply(ByteBuffer buffer, int offset) {
+        int checksumOffset = offset + logWidth - Integer.BYTES;
+        crc.reset();
+        crc.update(buffer.array(), offset, logWidth - Integer.BYTES);
+        if (buffer.getInt(checksumOffset) != (int) crc.getValue()) {
+            return false;
+        }
+        K key = HashTableSnapshot.decodeKey(buffer, offset + 1, keyCodec);
+        switch (buffer.get(offset)) {
+            case OP_PUT:
+                table.put(key, HashTableSnapshot.decodeValue(buffer, offset + 1,
+                        keyCodec, valueCodec));
+                return true;
+            case OP_REMOVE:
+                table.remove(key);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Дописывает запись в журнал.
+     */
+    private void append(byte op, K key, V value) {
+        ensureOpen();
+        HashTableSnapshot.encode(record, 1, key, value, keyCodec, valueCodec);
+        record.put(0, op);
+        crc.reset();
+        crc.update(record.array(), 0, logWidth - Integer.BYTES);
+        record.putInt(logWidth - Integer.BYTES, (int) crc.getValue());
+        record.clear();
+        try {
+            HashTableSnapshot.writeFully(log, record);
+            if (syncEachWrite) {
+                log.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void ensureOpen() {
+        if (log == null) {
+            throw new IllegalStateException("The table is closed.");
+        }
+    }
+
+    @Override
+    public V put(K key, V value) {
+        append(OP_PUT, key, value);
+        return table.put(key, value);
+    }
+
+    @Override
+    public V get(K key) {
+        ensureOpen();
+        return table.get(key);
+    }
+
+    @Override
+    public V update(K key, V value) {
+        ensureOpen();
+        if (!table.check(key)) {
+            return null;
+        }
+        append(OP_PUT, key, value);
+        return table.update(key, value);
+    }
+
+    @Override
+    public boolean check(K key) {
+        ensureOpen();
+        return table.check(key);
+    }
+
+    @Override
+    public V remove(K key) {
+        ensureOpen();
+        if (!table.check(key)) {
+            return null;
+        }
+        append(OP_REMOVE, key, null);
+        return table.remove(key);
+    }
+
+    @Override
+    public int size() {
+        return table.size();
+    }
+
+    /**
+     * Сбрасывает журнал на диск.
+     */
+    public void sync() {
+        ensureOpen();
+        try {
+            log.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Сохраняет снимок текущего содержимого и очищает журнал.
+     *
+     * @throws IOException если снимок или журнал не удалось записать.
+     */
+    public void checkpoint() throws IOException {
+        ensureOpen();
+        HashTableSnapshot.save(table, snapshotPath, keyCodec, valueCodec);
+        log.truncate(0);
+        log.force(true);
+    }
+
+    /**
+     * Возвращает размер журнала, который придется проиграть при открытии.
+     *
+     * @return Длина журнала в байтах.
+     */
+    public long logSize() {
+        ensureOpen();
+        try {
+            return log.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Закрывает журнал, предварительно сбросив его на диск.
+     *
+     * @throws IOException если журнал не удалось закрыть.
+     */
+    @Override
+    public void close() throws IOException {
+        if (log == null) {
+            return;
+        }
+        log.force(false);
+        log.close();
+        log = null;
+    }
+
+    /**
+     * Возвращает итератор по всем парам ключ-значение.
+     *
+     * @return Итератор {@link Entry}
+     */
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        ensureOpen();
+        return table.iterator();
+    }
+}
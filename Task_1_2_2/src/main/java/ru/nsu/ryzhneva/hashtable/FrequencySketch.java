@@ -0,0 +1,110 @@
+package ru.nsu.ryzhneva.hashtable;
+
+/**
+ * Приблизительный счетчик частот обращений (Count-Min Sketch)
+ * для политики допуска TinyLFU. Каждый элемент учитывается четырьмя
+ * 4-битными счетчиками в разных строках; частота — их минимум.
+ * Когда число увеличений достигает размера выборки, все счетчики
+ * делятся пополам, поэтому старая популярность постепенно забывается.
+ */
+final class FrequencySketch {
+    private static final long[] SEEDS = {
+        0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    private static final int MAX_TABLE_LENGTH = 1 << 22;
+    private static final int MAX_COUNT = 15;
+
+    private long[] table = new long[0];
+    private int tableMask;
+    private int sampleSize;
+    private int additions;
+
+    /**
+     * Увеличивает таблицу счетчиков, если она мала для заданного количества
+     * элементов. Накопленные частоты при этом сбрасываются.
+     *
+     * @param expectedSize Ожидаемое количество различных элементов.
+     */
+    void ensureCapacity(long expectedSize) {
+        int length = 16;
+        while (length < expectedSize && length < MAX_TABLE_LENGTH) {
+            length <<= 1;
+        }
+        if (length <= table.length) {
+            return;
+        }
+        table = new long[length];
+        tableMask = length - 1;
+        sampleSize = 10 * length;
+        additions = 0;
+    }
+
+    /**
+     * Возвращает оценку частоты элемента.
+     *
+     * @param hash Хеш-код элемента.
+     * @return Частота от 0 до {@value #MAX_COUNT}.
+     */
+    int frequency(int hash) {
+        int start = (hash & 3) << 2;
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xF);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Учитывает обращение к элементу.
+     *
+     * @param hash Хеш-код элемента.
+     */
+    void increment(int hash) {
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Увеличивает j-й счетчик в слове i, если он не достиг максимума.
+     */
+    private boolean incrementAt(int i, int j) {
+        int offset = j << 2;
+        long mask = 0xFL << offset;
+        if ((table[i] & mask) != mask) {
+            table[i] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Делит все счетчики пополам.
+     */
+    private void reset() {
+        int odd = 0;
+        for (int i = 0; i < table.length; i++) {
+            odd += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions = (additions - (odd >>> 2)) >>> 1;
+    }
+
+    /**
+     * Возвращает номер слова для строки {@code i}.
+     */
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return (int) h & tableMask;
+    }
+}
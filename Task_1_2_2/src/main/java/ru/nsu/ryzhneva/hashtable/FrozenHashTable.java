@@ -0,0 +1,326 @@
+package ru.nsu.ryzhneva.hashtable;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Неизменяемая хеш-таблица, построенная с минимальной совершенной
+ * хеш-функцией (алгоритм «hash and displace»). Различные хеш-коды ключей
+ * взаимно однозначно отображаются в номера ячеек 0...m-1, поэтому таблица
+ * лежит в плоских массивах без узлов, цепочек и пустых ячеек.
+ *
+ * <p>Поиск: по хешу выбирается группа и ее смещение, затем ячейка,
+ * хеш в которой сравнивается с искомым. Ключи с одинаковым хешем лежат
+ * подряд; если таких нет, массив границ групп не хранится.
+ *
+ * <p>Создается методом {@link HashTable#freeze()}. Методы изменения
+ * бросают {@link UnsupportedOperationException}.
+ *
+ * @param <K> Тип ключа.
+ * @param <V> Тип значения.
+ */
+public final class FrozenHashTable<K, V> extends AbstractTable<K, V> {
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+    private static final int MAX_SEED = 1 << 24;
+
+    private final HashStrategy<? super K> hashStrategy;
+    private final int[] displacements;
+    private final int[] hashes;
+    private final int[] offsets;
+    private final Object[] keys;
+    private final Object[] values;
+
+    /**
+     * Строит таблицу по парам и их хеш-кодам.
+     *
+     * @param entryHashes  Хеш-коды ключей.
+     * @param entryKeys    Ключи.
+     * @param entryValues  Значения.
+     * @param hashStrategy Стратегия, которой рассчитаны хеш-коды.
+     */
+    FrozenHashTable(int[] entryHashes, Object[] entryKeys, Object[] entryValues,
+                    HashStrategy<? super K> hashStrategy) {
+        this.hashStrategy = hashStrategy;
+        int n = entryHashes.length;
+        long[] order = new long[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = ((long) entryHashes[i] << 32) | i;
+        }
+        Arrays.sort(order);
+        int distinct = 0;
+        int[] unique = new int[n];
+        for (int i = 0; i < n; i++) {
+            int h = (int) (order[i] >> 32);
+            if (distinct == 0 || unique[distinct - 1] != h) {
+                unique[distinct++] = h;
+            }
+        }
+        this.hashes = new int[distinct];
+        this.displacements = buildDisplacements(Arrays.copyOf(unique, distinct));
+        int[] slotOfHash = new int[distinct];
+        for (int i = 0; i < distinct; i++) {
+            int slot = slotOf(unique[i]);
+            hashes[slot] = unique[i];
+            slotOfHash[i] = slot;
+        }
+
+        this.keys = new Object[n];
+        this.values = new Object[n];
+        if (distinct == n) {
+            this.offsets = null;
+            for (int i = 0; i < n; i++) {
+                int entry = (int) order[i];
+                keys[slotOfHash[i]] = entryKeys[entry];
+                values[slotOfHash[i]] = entryValues[entry];
+            }
+            return;
+        }
+        this.offsets = new int[distinct + 1];
+        int[] groupOf = new int[n];
+        for (int i = 0, group = -1; i < n; i++) {
+            if (i == 0 || (int) (order[i] >> 32) != (int) (order[i - 1] >> 32)) {
+                group++;
+            }
+            groupOf[i] = slotOfHash[group];
+            offsets[groupOf[i] + 1]++;
+        }
+        for (int s = 0; s < distinct; s++) {
+            offsets[s + 1] += offsets[s];
+        }
+        int[] fill = Arrays.copyOf(offsets, distinct);
+        for (int i = 0; i < n; i++) {
+            int entry = (int) order[i];
+            int position = fill[groupOf[i]]++;
+            keys[position] = entryKeys[entry];
+            values[position] = entryValues[entry];
+        }
+    }
+
+    /**
+     * Подбирает смещения групп так, чтобы все хеши попали в разные ячейки.
+     * Группы обрабатываются от больших к меньшим; группе из одного хеша
+     * сразу отдается свободная ячейка, записанная как {@code -(ячейка + 1)}.
+     *
+     * @param unique Различные хеш-коды.
+     * @return Смещения групп.
+     */
+    private static int[] buildDisplacements(int[] unique) {
+        int m = unique.length;
+        int[] result = new int[Math.max(m, 1)];
+        if (m == 0) {
+            return result;
+        }
+        int[] bucketSizes = new int[m];
+        for (int h : unique) {
+            bucketSizes[reduce(mix(h, 0), m)]++;
+        }
+        int[] bucketStart = new int[m + 1];
+        for (int b = 0; b < m; b++) {
+            bucketStart[b + 1] = bucketStart[b] + bucketSizes[b];
+        }
+        int[] members = new int[m];
+        int[] fill = Arrays.copyOf(bucketStart, m);
+        for (int h : unique) {
+            members[fill[reduce(mix(h, 0), m)]++] = h;
+        }
+        long[] bySize = new long[m];
+        for (int b = 0; b < m; b++) {
+            bySize[b] = ((long) bucketSizes[b] << 32) | b;
+        }
+        Arrays.sort(bySize);
+
+        boolean[] taken = new boolean[m];
+        int[] candidate = new int[m];
+        int freeCursor = 0;
+        for (int k = m - 1; k >= 0; k--) {
+            int b = (int) bySize[k];
+            int from = bucketStart[b];
+            int count = bucketSizes[b];
+            if (count == 0) {
+                break;
+            }
+            if (count == 1) {
+                while (taken[freeCursor]) {
+                    freeCursor++;
+                }
+                taken[freeCursor] = true;
+                result[b] = -(freeCursor + 1);
+                continue;
+            }
+            result[b] = placeBucket(members, from, count, m, taken, candidate);
+        }
+        return result;
+    }
+
+    /**
+     * Ищет смещение, при котором все хеши группы попадают в свободные
+     * и различные ячейки, и занимает их.
+     */
+    private static int placeBucket(int[] members, int from, int count, int m,
+                                   boolean[] taken, int[] candidate) {
+        for (int seed = 1; seed < MAX_SEED; seed++) {
+            int placed = 0;
+            while (placed < count) {
+                int slot = reduce(mix(members[from + placed], seed), m);
+                if (taken[slot]) {
+                    break;
+                }
+                taken[slot] = true;
+                candidate[placed++] = slot;
+            }
+            if (placed == count) {
+                return seed;
+            }
+            for (int i = 0; i < placed; i++) {
+                taken[candidate[i]] = false;
+            }
+        }
+        throw new IllegalStateException("Failed to build a perfect hash function.");
+    }
+
+    private static int mix(int hash, int seed) {
+        int h = hash + seed * GOLDEN_RATIO;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static int reduce(int h, int m) {
+        return (int) (((h & 0xFFFFFFFFL) * m) >>> 32);
+    }
+
+    /**
+     * Возвращает ячейку хеш-кода. Для хеша, которого нет в таблице,
+     * возвращает произвольную ячейку.
+     */
+    private int slotOf(int hash) {
+        int m = hashes.length;
+        int d = displacements[reduce(mix(hash, 0), m)];
+        return (d < 0) ? -d - 1 : reduce(mix(hash, d), m);
+    }
+
+    private int hash(K key) {
+        return (key == null) ? 0 : hashStrategy.hash(key);
+    }
+
+    /**
+     * Ищет позицию пары в массивах ключей и значений.
+     *
+     * @param key Ключ.
+     * @return Позиция или {@code -1}.
+     */
+    private int indexOf(K key) {
+        if (keys.length == 0) {
+            return -1;
+        }
+        int h = hash(key);
+        int slot = slotOf(h);
+        if (hashes[slot] != h) {
+            return -1;
+        }
+        if (offsets == null) {
+            return Objects.equals(keys[slot], key) ? slot : -1;
+        }
+        for (int i = offsets[slot]; i < offsets[slot + 1]; i++) {
+            if (Objects.equals(keys[i], key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public V get(K key) {
+        int i = indexOf(key);
+        return (i >= 0) ? (V) values[i] : null;
+    }
+
+    @Override
+    public boolean check(K key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Не поддерживается.
+     *
+     * @throws UnsupportedOperationException всегда.
+     */
+    @Override
+    public V put(K key, V value) {
+        throw new UnsupportedOperationException("The table is frozen.");
+    }
+
+    /**
+     * Не поддерживается.
+     *
+     * @throws UnsupportedOperationException всегда.
+     */
+    @Override
+    public V update(K key, V value) {
+        throw new UnsupportedOperationException("The table is frozen.");
+    }
+
+    /**
+     * Не поддерживается.
+     *
+     * @throws UnsupportedOperationException всегда.
+     */
+    @Override
+    public V remove(K key) {
+        throw new UnsupportedOperationException("The table is frozen.");
+    }
+
+    /**
+     * Не поддерживается.
+     *
+     * @throws UnsupportedOperationException всегда.
+     */
+    @Override
+    public void putAll(Table<? extends K, ? extends V> other) {
+        throw new UnsupportedOperationException("The table is frozen.");
+    }
+
+    /**
+     * Возвращает итератор по всем парам в порядке ячеек.
+     *
+     * @return Итератор {@link Entry}
+     */
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        return new Iterator<>() {
+            private int slot = 0;
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < keys.length;
+            }
+
+            @Override
+            public Entry<K, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("There are no elements.");
+                }
+                if (offsets == null) {
+                    slot = index;
+                } else {
+                    while (offsets[slot + 1] <= index) {
+                        slot++;
+                    }
+                }
+                int i = index++;
+                return new Node<>((K) keys[i], (V) values[i], hashes[slot], null);
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package ru.nsu.ryzhneva.hashtable;
+
+import java.security.SecureRandom;
+
+/**
+ * Функция, превращающая ключ в хеш-код ячейки.
+ * Позволяет заменить стандартное перемешивание {@code hashCode()}
+ * более сильным или зависящим от секретного зерна.
+ *
+ * @param <K> Тип ключа.
+ */
+@FunctionalInterface
+public interface HashStrategy<K> {
+
+    /**
+     * Рассчитывает хеш-код ключа.
+     *
+     * @param key Ключ, не {@code null}.
+     * @return Хеш-код.
+     */
+    int hash(K key);
+
+    /**
+     * Стандартная стратегия: старшие 16 бит {@code hashCode()}
+     * подмешиваются к младшим.
+     *
+     * @return Стратегия по умолчанию.
+     */
+    static <K> HashStrategy<K> standard() {
+        return key -> {
+            int h = key.hashCode();
+            return h ^ (h >>> 16);
+        };
+    }
+
+    /**
+     * Финализатор MurmurHash3: каждый бит {@code hashCode()} влияет
+     * на все биты результата.
+     *
+     * @return Стратегия с перемешиванием murmur3.
+     */
+    static <K> HashStrategy<K> murmur3() {
+        return key -> fmix32(key.hashCode());
+    }
+
+    /**
+     * Финализатор MurmurHash3 с зерном. Не зная зерна, нельзя заранее
+     * подобрать ключи с разными {@code hashCode()}, попадающие в одну ячейку.
+     * Ключи с одинаковым {@code hashCode()} по-прежнему совпадают,
+     * их обрабатывают ячейки-деревья.
+     *
+     * @param seed Зерно.
+     * @return Стратегия с зерном.
+     */
+    static <K> HashStrategy<K> seeded(int seed) {
+        return key -> fmix32(key.hashCode() ^ seed);
+    }
+
+    /**
+     * Финализатор MurmurHash3 со случайным зерном из {@link SecureRandom}.
+     *
+     * @return Стратегия со случайным зерном.
+     */
+    static <K> HashStrategy<K> randomSeeded() {
+        return seeded(new SecureRandom().nextInt());
+    }
+
+    /**
+     * Финализатор fmix32 из MurmurHash3.
+     */
+    private static int fmix32(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -1,45 +1,278 @@
 package ru.nsu.ryzhneva.hashtable;
 
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.management.JMException;
+import javax.management.ObjectName;
 
 /**
  * Реализация параметризованной хеш-таблицы.
+ * В режиме инкрементального расширения старый и новый массивы ячеек
+ * существуют одновременно, а каждая структурная модификация переносит
+ * не более {@value #MIGRATION_STEP} ячеек, поэтому отдельный вызов
+ * {@code put()} не перестраивает всю таблицу целиком.
+ * Слишком длинные цепочки превращаются в сбалансированные деревья
+ * ({@link TreeBin}), поэтому поиск среди коллизий занимает O(log n).
+ * Когда после удалений заполненность падает ниже нижнего порога,
+ * таблица сжимается до заполненности не выше половины коэффициента
+ * загрузки, чтобы следующие вставки не расширяли ее сразу.
+ *
+ * <p>Начальная емкость, коэффициент загрузки, порог сжатия и функция
+ * хеширования ({@link HashStrategy}) задаются через {@link Builder}.
+ *
+ * <p>{@link #spliterator()} делит таблицу по диапазонам ячеек, поэтому
+ * {@link #parallelStream()} и методы {@code forEach}, {@code reduce}
+ * и {@code search} с порогом параллелизма обходят ее на всех ядрах.
+ *
+ * <p>С {@link Builder#recordStats(boolean)} таблица считает длину
+ * просмотренных цепочек, долю найденных ключей и время расширений;
+ * снимок возвращает {@link #getStats()}, а {@link #registerStatsMBean(String)}
+ * публикует его через JMX.
  *
  * @param <K> Тип ключа.
  * @param <V> Тип значения.
  */
-public class HashTable<K, V> implements Iterable<Entry<K, V>> {
+public class HashTable<K, V> extends AbstractTable<K, V> {
     private Node<K, V>[] table;
+    private Node<K, V>[] oldTable;
+    private int migrateIndex = 0;
     private int size = 0;
     private int capTable;
     private int modCount = 0;
+    private final boolean incrementalResize;
+    private final float loadFactor;
+    private final float shrinkFactor;
+    private final int minCapacity;
+    private final HashStrategy<? super K> hashStrategy;
+    private final StatsRecorder stats;
+    private int probes;
     private static final int DEF_INIT_CAP = 16;
-    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final float DEF_LOAD_FACTOR = 0.75f;
+    private static final int MIGRATION_STEP = 4;
+    private static final int MIN_TREEIFY_CAPACITY = 64;
 
     /**
      * Создает пустую хеш-таблицу с начальной емкостью
      * {@value #DEF_INIT_CAP}.
      */
     public HashTable() {
-        this.capTable = DEF_INIT_CAP;
+        this(new Builder<>());
+    }
+
+    /**
+     * Создает пустую хеш-таблицу с начальной емкостью
+     * {@value #DEF_INIT_CAP}.
+     *
+     * @param incrementalResize {@code true}, если таблица должна расширяться
+     *                          постепенно, а не за один вызов {@code put()}.
+     */
+    public HashTable(boolean incrementalResize) {
+        this(new Builder<K, V>().incrementalResize(incrementalResize));
+    }
+
+    /**
+     * Создает пустую хеш-таблицу с начальной емкостью
+     * {@value #DEF_INIT_CAP}.
+     *
+     * @param incrementalResize {@code true}, если таблица должна расширяться
+     *                          постепенно, а не за один вызов {@code put()}.
+     * @param shrinkFactor      Нижний порог заполненности, при котором таблица
+     *                          сжимается; {@code 0} отключает сжатие.
+     * @throws IllegalArgumentException если порог не меньше половины
+     *                                  {@value #DEF_LOAD_FACTOR} или отрицателен.
+     */
+    public HashTable(boolean incrementalResize, float shrinkFactor) {
+        this(new Builder<K, V>()
+                .incrementalResize(incrementalResize)
+                .shrinkFactor(shrinkFactor));
+    }
+
+    /**
+     * Создает пустую хеш-таблицу с заданными емкостью и коэффициентом загрузки.
+     *
+     * @param initialCapacity Начальная емкость; округляется вверх
+     *                        до степени двойки.
+     * @param loadFactor      Заполненность, после которой таблица расширяется.
+     * @throws IllegalArgumentException если параметры недопустимы.
+     */
+    public HashTable(int initialCapacity, float loadFactor) {
+        this(new Builder<K, V>()
+                .initialCapacity(initialCapacity)
+                .loadFactor(loadFactor));
+    }
+
+    /**
+     * Создает пустую хеш-таблицу по настройкам построителя.
+     *
+     * @param builder Настройки.
+     * @throws IllegalArgumentException если параметры недопустимы.
+     */
+    private HashTable(Builder<K, V> builder) {
+        if (builder.initialCapacity < 1 || builder.initialCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException(
+                    "Initial capacity must be in [1, " + MAX_CAPACITY + "].");
+        }
+        if (!(builder.loadFactor > 0 && builder.loadFactor < Float.POSITIVE_INFINITY)) {
+            throw new IllegalArgumentException("Load factor must be positive.");
+        }
+        float shrink = Float.isNaN(builder.shrinkFactor)
+                ? builder.loadFactor / 4
+                : builder.shrinkFactor;
+        if (!(shrink >= 0 && shrink < builder.loadFactor / 2)) {
+            throw new IllegalArgumentException(
+                    "Shrink factor must be in [0, " + builder.loadFactor / 2 + ").");
+        }
+        int cap = 1;
+        while (cap < builder.initialCapacity) {
+            cap <<= 1;
+        }
+        this.capTable = cap;
+        this.minCapacity = cap;
         this.table = (Node<K, V>[]) new Node[capTable];
+        this.incrementalResize = builder.incrementalResize;
+        this.loadFactor = builder.loadFactor;
+        this.shrinkFactor = shrink;
+        this.hashStrategy = builder.hashStrategy;
+        this.stats = builder.recordStats ? new StatsRecorder() : null;
+    }
+
+    /**
+     * Возвращает построитель хеш-таблицы.
+     *
+     * @param <K> Тип ключа.
+     * @param <V> Тип значения.
+     * @return Построитель с настройками по умолчанию.
+     */
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Построитель хеш-таблицы. Все настройки необязательны:
+     * по умолчанию емкость {@value #DEF_INIT_CAP}, коэффициент загрузки
+     * {@value #DEF_LOAD_FACTOR}, порог сжатия в четыре раза меньше
+     * коэффициента загрузки, стратегия {@link HashStrategy#standard()}.
+     *
+     * @param <K> Тип ключа.
+     * @param <V> Тип значения.
+     */
+    public static final class Builder<K, V> {
+        private int initialCapacity = DEF_INIT_CAP;
+        private float loadFactor = DEF_LOAD_FACTOR;
+        private float shrinkFactor = Float.NaN;
+        private boolean incrementalResize = false;
+        private HashStrategy<? super K> hashStrategy = HashStrategy.standard();
+        private boolean recordStats = false;
+
+        private Builder() {
+        }
+
+        /**
+         * Задает начальную емкость. Таблица не сжимается ниже нее.
+         *
+         * @param initialCapacity Количество ячеек; округляется вверх
+         *                        до степени двойки.
+         * @return Этот построитель.
+         */
+        public Builder<K, V> initialCapacity(int initialCapacity) {
+            this.initialCapacity = initialCapacity;
+            return this;
+        }
+
+        /**
+         * Задает коэффициент загрузки. Так как коллизии хранятся в цепочках,
+         * он может быть больше единицы.
+         *
+         * @param loadFactor Заполненность, после которой таблица расширяется.
+         * @return Этот построитель.
+         */
+        public Builder<K, V> loadFactor(float loadFactor) {
+            this.loadFactor = loadFactor;
+            return this;
+        }
+
+        /**
+         * Задает нижний порог заполненности, при котором таблица сжимается.
+         *
+         * @param shrinkFactor Порог, меньше половины коэффициента загрузки;
+         *                     {@code 0} отключает сжатие.
+         * @return Этот построитель.
+         */
+        public Builder<K, V> shrinkFactor(float shrinkFactor) {
+            this.shrinkFactor = shrinkFactor;
+            return this;
+        }
+
+        /**
+         * Включает постепенное расширение.
+         *
+         * @param incrementalResize {@code true}, если таблица должна расширяться
+         *                          постепенно, а не за один вызов {@code put()}.
+         * @return Этот построитель.
+         */
+        public Builder<K, V> incrementalResize(boolean incrementalResize) {
+            this.incrementalResize = incrementalResize;
+            return this;
+        }
+
+        /**
+         * Задает функцию хеширования ключей.
+         *
+         * @param hashStrategy Стратегия; ключ {@code null} ей не передается.
+         * @return Этот построитель.
+         */
+        public Builder<K, V> hashStrategy(HashStrategy<? super K> hashStrategy) {
+            this.hashStrategy = Objects.requireNonNull(hashStrategy);
+            return this;
+        }
+
+        /**
+         * Включает сбор статистики поиска и расширений ({@link HashTable#getStats()}).
+         * Без нее горячий путь платит только за проверку на {@code null}.
+         *
+         * @param recordStats {@code true}, чтобы собирать статистику.
+         * @return Этот построитель.
+         */
+        public Builder<K, V> recordStats(boolean recordStats) {
+            this.recordStats = recordStats;
+            return this;
+        }
+
+        /**
+         * Создает пустую хеш-таблицу.
+         *
+         * @return Новая таблица.
+         * @throws IllegalArgumentException если параметры недопустимы.
+         */
+        public HashTable<K, V> build() {
+            return new HashTable<>(this);
+        }
     }
 
     /**
      * Рассчитывает хеш-код для ключа.
      *
      * @param key Ключ для хеширования.
-     * @return Улучшенный хеш-код.
+     * @return Хеш-код, вычисленный стратегией таблицы.
      */
     private int hash(K key) {
         if (key == null) {
             return 0;
         }
-        int h = key.hashCode();
-        return (h ^ (h >>> 16));
+        return hashStrategy.hash(key);
     }
 
     /**
@@ -59,9 +292,78 @@ public class HashTable<K, V> implements Iterable<Entry<K, V>> {
      * @return Найденный {@link Node} или {@code null}, если ключ отсутствует.
      */
     private Node<K, V> findNode(K key) {
-        int hash = hash(key);
-        int index = getIndex(hash);
-        for (Node<K, V> node = table[index]; node != null; node = node.next) {
+        return findNode(key, hash(key));
+    }
+
+    /**
+     * Находит узел по ключу с заранее рассчитанным хешем.
+     * Во время расширения проверяет и новый, и старый массив.
+     *
+     * @param key  Ключ для поиска.
+     * @param hash Хеш-код ключа.
+     * @return Найденный {@link Node} или {@code null}, если ключ отсутствует.
+     */
+    private Node<K, V> findNode(K key, int hash) {
+        if (stats != null) {
+            return findNodeRecording(key, hash);
+        }
+        Node<K, V> node = findInBucket(table[getIndex(hash)], hash, key);
+        if (node == null && oldTable != null) {
+            node = findInBucket(oldTable[(oldTable.length - 1) & hash], hash, key);
+        }
+        return node;
+    }
+
+    /**
+     * Находит узел, подсчитывая просмотренные узлы.
+     * Для ячейки-дерева учитывается его высота.
+     *
+     * @param key  Ключ для поиска.
+     * @param hash Хеш-код ключа.
+     * @return Найденный {@link Node} или {@code null}, если ключ отсутствует.
+     */
+    private Node<K, V> findNodeRecording(K key, int hash) {
+        probes = 0;
+        Node<K, V> node = probeBucket(table[getIndex(hash)], hash, key);
+        if (node == null && oldTable != null) {
+            node = probeBucket(oldTable[(oldTable.length - 1) & hash], hash, key);
+        }
+        stats.recordLookup(probes);
+        return node;
+    }
+
+    /**
+     * Ищет узел в ячейке и добавляет просмотренные узлы к {@link #probes},
+     * чтобы не создавать объект для результата на каждый поиск.
+     */
+    private Node<K, V> probeBucket(Node<K, V> first, int hash, K key) {
+        if (first instanceof TreeBin) {
+            TreeBin<K, V> bin = (TreeBin<K, V>) first;
+            probes += 32 - Integer.numberOfLeadingZeros(bin.size());
+            return bin.find(hash, key);
+        }
+        for (Node<K, V> node = first; node != null; node = node.next) {
+            probes++;
+            if (node.hash == hash && Objects.equals(node.key, key)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Ищет узел в цепочке одной ячейки.
+     *
+     * @param first Первый узел цепочки.
+     * @param hash  Хеш-код ключа.
+     * @param key   Ключ для поиска.
+     * @return Найденный {@link Node} или {@code null}.
+     */
+    private Node<K, V> findInBucket(Node<K, V> first, int hash, K key) {
+        if (first instanceof TreeBin) {
+            return ((TreeBin<K, V>) first).find(hash, key);
+        }
+        for (Node<K, V> node = first; node != null; node = node.next) {
             if (node.hash == hash && Objects.equals(node.key, key)) {
                 return node;
             }
@@ -71,25 +373,126 @@ public class HashTable<K, V> implements Iterable<Entry<K, V>> {
 
     /**
      * Увеличивает размер таблицы.
+     * В инкрементальном режиме только выделяет новый массив,
+     * а перенос узлов выполняется в {@link #migrateStep()}.
      */
     private void resize() {
-        int prevCap = capTable;
+        if (capTable < MAX_CAPACITY) {
+            resizeTo(capTable << 1, incrementalResize);
+        }
+    }
+
+    /**
+     * Меняет размер массива ячеек.
+     *
+     * @param newCap      Новая емкость, степень двойки.
+     * @param incremental {@code true}, если узлы переносятся постепенно.
+     */
+    private void resizeTo(int newCap, boolean incremental) {
+        long start = (stats != null) ? System.nanoTime() : 0;
+        if (oldTable != null) {
+            finishMigration();
+        }
         Node<K, V>[] prevTable = table;
 
-        capTable = prevCap << 1;
-        Node<K, V>[] newTable = (Node<K, V>[]) new Node[capTable];
-        for (int i = 0; i < prevCap; i++) {
-            Node<K, V> node = prevTable[i];
-            while (node != null) {
-                Node<K, V> next = node.next;
-                int index = getIndex(node.hash);
-                node.next = newTable[index];
-                newTable[index] = node;
-
-                node = next;
+        capTable = newCap;
+        table = (Node<K, V>[]) new Node[capTable];
+        if (incremental) {
+            oldTable = prevTable;
+            migrateIndex = 0;
+        } else {
+            for (int i = 0; i < prevTable.length; i++) {
+                transferBucket(prevTable, i);
             }
         }
-        table = newTable;
+        if (stats != null) {
+            stats.recordResize(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Переносит все узлы ячейки старого массива в текущий {@code table}.
+     *
+     * @param src   Массив, из которого переносятся узлы.
+     * @param index Индекс ячейки в {@code src}.
+     */
+    private void transferBucket(Node<K, V>[] src, int index) {
+        Node<K, V> node = firstNode(src[index]);
+        src[index] = null;
+        while (node != null) {
+            Node<K, V> next = node.next;
+            linkNode(node);
+            node = next;
+        }
+    }
+
+    /**
+     * Добавляет узел в его ячейку текущего {@code table}.
+     * Если цепочка становится слишком длинной, превращает ее в дерево.
+     *
+     * @param node Узел, ключа которого еще нет в таблице.
+     */
+    private void linkNode(Node<K, V> node) {
+        int index = getIndex(node.hash);
+        Node<K, V> first = table[index];
+        if (first instanceof TreeBin) {
+            ((TreeBin<K, V>) first).add(node);
+            return;
+        }
+        node.next = first;
+        table[index] = node;
+        if (capTable >= MIN_TREEIFY_CAPACITY && TreeBin.exceedsThreshold(node)) {
+            table[index] = TreeBin.treeify(node);
+        }
+    }
+
+    /**
+     * Возвращает первый узел ячейки с учетом ячеек-деревьев.
+     *
+     * @param cell Содержимое ячейки массива.
+     * @return Первый узел цепочки или {@code null}.
+     */
+    private static <K, V> Node<K, V> firstNode(Node<K, V> cell) {
+        return (cell instanceof TreeBin) ? ((TreeBin<K, V>) cell).first : cell;
+    }
+
+    /**
+     * Переносит очередные {@value #MIGRATION_STEP} ячейки старого массива.
+     */
+    private void migrateStep() {
+        if (oldTable == null) {
+            return;
+        }
+        long start = (stats != null) ? System.nanoTime() : 0;
+        int end = Math.min(migrateIndex + MIGRATION_STEP, oldTable.length);
+        for (; migrateIndex < end; migrateIndex++) {
+            transferBucket(oldTable, migrateIndex);
+        }
+        if (migrateIndex == oldTable.length) {
+            oldTable = null;
+        }
+        if (stats != null) {
+            stats.recordPause(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Завершает перенос всех оставшихся ячеек старого массива.
+     */
+    private void finishMigration() {
+        for (; migrateIndex < oldTable.length; migrateIndex++) {
+            transferBucket(oldTable, migrateIndex);
+        }
+        oldTable = null;
+    }
+
+    /**
+     * Проверяет, идет ли сейчас инкрементальное расширение.
+     *
+     * @return {@code true}, если старый массив еще не перенесен полностью.
+     */
+    public boolean isMigrating() {
+        return oldTable != null;
     }
 
     /**
@@ -100,34 +503,314 @@ public class HashTable<K, V> implements Iterable<Entry<K, V>> {
      * @param value Значение.
      * @return Предыдущее значение.
      */
+    @Override
     public V put(K key, V value) {
-        int hash = hash(key);
-        int index = getIndex(hash);
-        for (Node<K, V> node = table[index]; node != null; node = node.next) {
-            if (node.hash == hash && Objects.equals(node.key, key)) {
-                V prevValue = node.value;
-                node.value = value;
-                return prevValue;
-            }
+        return putVal(key, hash(key), value);
+    }
+
+    /**
+     * Добавляет пару с заранее рассчитанным хешем ключа.
+     *
+     * @param key   Ключ.
+     * @param hash  Хеш-код ключа.
+     * @param value Значение.
+     * @return Предыдущее значение.
+     */
+    private V putVal(K key, int hash, V value) {
+        Node<K, V> node = findNode(key, hash);
+        if (node != null) {
+            V prevValue = node.value;
+            node.value = value;
+            afterNodeAccess(node);
+            return prevValue;
         }
-        Node<K, V> newNode = new Node<>(key, value, hash, table[index]);
-        table[index] = newNode;
+        node = newNode(key, value, hash);
+        linkNode(node);
         size++;
         modCount++;
-        if ((float) size / capTable > LOAD_FACTOR) {
+        migrateStep();
+        if ((float) size / capTable > loadFactor) {
             resize();
         }
+        afterNodeInsertion(node);
         return null;
     }
 
+    /**
+     * Создает узел для новой пары. Наследники в пакете подменяют узел,
+     * чтобы хранить в нем свои поля.
+     *
+     * @param key   Ключ.
+     * @param value Значение.
+     * @param hash  Хеш-код ключа.
+     * @return Новый узел.
+     */
+    Node<K, V> newNode(K key, V value, int hash) {
+        return new Node<>(key, value, hash, null);
+    }
+
+    /**
+     * Вызывается после поиска узла методами {@code get()} и {@code getAll()}.
+     *
+     * @param node Найденный узел или {@code null}.
+     */
+    void afterNodeLookup(Node<K, V> node) {
+    }
+
+    /**
+     * Вызывается после замены значения существующего узла.
+     *
+     * @param node Узел.
+     */
+    void afterNodeAccess(Node<K, V> node) {
+    }
+
+    /**
+     * Вызывается после вставки нового узла и возможного расширения.
+     *
+     * @param node Новый узел.
+     */
+    void afterNodeInsertion(Node<K, V> node) {
+    }
+
+    /**
+     * Вызывается после удаления узла из таблицы.
+     *
+     * @param node Удаленный узел.
+     */
+    void afterNodeRemoval(Node<K, V> node) {
+    }
+
+    /**
+     * Заранее увеличивает таблицу так, чтобы вставка {@code expectedSize} пар
+     * не вызывала промежуточных расширений.
+     *
+     * @param expectedSize Ожидаемое общее количество пар.
+     */
+    public void ensureCapacity(int expectedSize) {
+        int newCap = capacityFor(expectedSize, loadFactor);
+        if (newCap > capTable) {
+            resizeTo(newCap, false);
+            modCount++;
+        }
+    }
+
+    /**
+     * Сжимает таблицу до минимальной емкости, вмещающей текущие пары
+     * без превышения коэффициента загрузки, но не меньше начальной.
+     */
+    public void trimToSize() {
+        int newCap = capacityFor(size, loadFactor);
+        if (newCap < capTable || oldTable != null) {
+            resizeTo(newCap, false);
+            modCount++;
+        }
+    }
+
+    /**
+     * Создает неизменяемую копию таблицы с минимальной совершенной
+     * хеш-функцией. Копия использует ту же стратегию хеширования
+     * и не зависит от последующих изменений этой таблицы.
+     *
+     * @return Замороженная копия.
+     */
+    public FrozenHashTable<K, V> freeze() {
+        int[] hashes = new int[size];
+        Object[] keys = new Object[size];
+        Object[] values = new Object[size];
+        int i = 0;
+        for (Entry<K, V> entry : this) {
+            Node<K, V> node = (Node<K, V>) entry;
+            hashes[i] = node.hash;
+            keys[i] = node.key;
+            values[i] = node.value;
+            i++;
+        }
+        return new FrozenHashTable<>(hashes, keys, values, hashStrategy);
+    }
+
+    /**
+     * Возвращает снимок статистики. Гистограмма заполненности ячеек
+     * рассчитывается обходом массива, счетчики поиска и расширений
+     * заполнены, только если сбор статистики включен в построителе.
+     *
+     * @return Снимок статистики.
+     */
+    public HashTableStats getStats() {
+        return getStats(true);
+    }
+
+    /**
+     * Возвращает снимок статистики.
+     *
+     * @param withHistogram {@code true}, если нужна гистограмма заполненности.
+     * @return Снимок статистики.
+     */
+    HashTableStats getStats(boolean withHistogram) {
+        return new HashTableStats(size, capTable, stats,
+                withHistogram ? occupancyHistogram() : new long[0]);
+    }
+
+    /**
+     * Считает ячейки по длине цепочки. Во время расширения
+     * учитываются ячейки обоих массивов.
+     */
+    private long[] occupancyHistogram() {
+        long[] histogram = new long[TreeBin.TREEIFY_THRESHOLD + 2];
+        Node<K, V>[] old = oldTable;
+        if (old != null) {
+            countChains(old, histogram);
+        }
+        countChains(table, histogram);
+        return histogram;
+    }
+
+    private void countChains(Node<K, V>[] tab, long[] histogram) {
+        int last = histogram.length - 1;
+        for (Node<K, V> cell : tab) {
+            int length;
+            if (cell instanceof TreeBin) {
+                length = ((TreeBin<K, V>) cell).size();
+            } else {
+                length = 0;
+                for (Node<K, V> node = cell; node != null && length < last; node = node.next) {
+                    length++;
+                }
+            }
+            histogram[Math.min(length, last)]++;
+        }
+    }
+
+    /**
+     * Регистрирует статистику таблицы в платформенном MBean-сервере.
+     * Сервер держит ссылку на таблицу, пока MBean не будет снят
+     * с регистрации по возвращенному имени.
+     *
+     * @param name Имя объекта, например
+     *             {@code "ru.nsu.ryzhneva:type=HashTable,name=users"}.
+     * @return Зарегистрированное имя.
+     * @throws JMException если имя некорректно или уже занято.
+     */
+    public ObjectName registerStatsMBean(String name) throws JMException {
+        ObjectName objectName = new ObjectName(name);
+        ManagementFactory.getPlatformMBeanServer()
+                .registerMBean(new HashTableStatsBean(this), objectName);
+        return objectName;
+    }
+
+    /**
+     * Возвращает текущую емкость массива ячеек.
+     *
+     * @return Количество ячеек.
+     */
+    public int capacity() {
+        return capTable;
+    }
+
+    /**
+     * Рассчитывает наименьшую емкость (степень двойки, не меньше
+     * начальной), при которой заполненность не превышает заданной.
+     *
+     * @param count      Количество пар.
+     * @param loadFactor Допустимая заполненность.
+     * @return Емкость.
+     */
+    private int capacityFor(int count, float loadFactor) {
+        long minCap = (long) Math.ceil(count / (double) loadFactor);
+        int cap = minCapacity;
+        while (cap < minCap && cap < MAX_CAPACITY) {
+            cap <<= 1;
+        }
+        return cap;
+    }
+
+    /**
+     * Сжимает таблицу, если заполненность упала ниже нижнего порога.
+     */
+    private void shrinkIfSparse() {
+        if (capTable > minCapacity && size < capTable * shrinkFactor) {
+            int newCap = capacityFor(size, loadFactor / 2);
+            if (newCap < capTable) {
+                resizeTo(newCap, incrementalResize);
+            }
+        }
+    }
+
+    /**
+     * Добавляет все пары другой таблицы.
+     * Емкость увеличивается один раз, до вставки.
+     *
+     * @param other Таблица, пары которой нужно добавить.
+     */
+    @Override
+    public void putAll(Table<? extends K, ? extends V> other) {
+        ensureCapacity(size + other.size());
+        for (Entry<? extends K, ? extends V> entry : other) {
+            putVal(entry.getKey(), hash(entry.getKey()), entry.getValue());
+        }
+    }
+
+    /**
+     * Загружает пары из параллельных массивов ключей и значений.
+     * Емкость увеличивается один раз, до вставки.
+     *
+     * @param keys   Ключи.
+     * @param values Значения, {@code values[i]} соответствует {@code keys[i]}.
+     * @throws IllegalArgumentException если длины массивов различаются.
+     */
+    public void bulkLoad(K[] keys, V[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("Keys and values must have the same length.");
+        }
+        ensureCapacity(size + keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            putVal(keys[i], hash(keys[i]), values[i]);
+        }
+    }
+
+    /**
+     * Возвращает значения для массива ключей.
+     * Сначала рассчитываются все хеши, затем ключи просматриваются
+     * в порядке номеров ячеек, чтобы обращения к массиву шли подряд.
+     *
+     * @param keys Ключи для поиска.
+     * @return Список значений, i-й элемент соответствует {@code keys[i]}.
+     */
+    @Override
+    public List<V> getAll(K[] keys) {
+        int[] hashes = new int[keys.length];
+        long[] order = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            hashes[i] = hash(keys[i]);
+            order[i] = ((long) getIndex(hashes[i]) << 32) | i;
+        }
+        Arrays.sort(order);
+        Object[] values = new Object[keys.length];
+        for (long packed : order) {
+            int i = (int) packed;
+            Node<K, V> node = findNode(keys[i], hashes[i]);
+            if (stats != null) {
+                stats.recordGet(node != null);
+            }
+            afterNodeLookup(node);
+            values[i] = (node != null) ? node.value : null;
+        }
+        return (List<V>) Arrays.asList(values);
+    }
+
     /**
      * Возвращает значение по ключу.
      *
      * @param key Ключ для поиска.
      * @return Значение, связанное с ключом.
      */
+    @Override
     public V get(K key) {
         Node<K, V> node = findNode(key);
+        if (stats != null) {
+            stats.recordGet(node != null);
+        }
+        afterNodeLookup(node);
         return (node != null) ? node.value : null;
     }
 
@@ -138,11 +821,13 @@ public class HashTable<K, V> implements Iterable<Entry<K, V>> {
      * @param value Новое значение.
      * @return Старое значение.
      */
+    @Override
     public V update(K key, V value) {
         Node<K, V> node = findNode(key);
         if (node != null) {
             V prevValue = node.value;
             node.value = value;
+            afterNodeAccess(node);
             return prevValue;
         }
         return null;
@@ -154,6 +839,7 @@ public class HashTable<K, V> implements Iterable<Entry<K, V>> {
      * @param key Ключ для проверки.
      * @return {@code true}, если ключ найден, иначе {@code false}.
      */
+    @Override
     public boolean check(K key) {
         return findNode(key) != null;
     }
@@ -164,23 +850,53 @@ public class HashTable<K, V> implements Iterable<Entry<K, V>> {
      * @param key Ключ для удаления.
      * @return Удаленное значение.
      */
+    @Override
     public V remove(K key) {
         int hash = hash(key);
-        int index = getIndex(hash);
+        Node<K, V> node = removeFromBucket(table, getIndex(hash), hash, key);
+        if (node == null && oldTable != null) {
+            node = removeFromBucket(oldTable, (oldTable.length - 1) & hash, hash, key);
+        }
+        if (node == null) {
+            return null;
+        }
+        size--;
+        modCount++;
+        migrateStep();
+        shrinkIfSparse();
+        afterNodeRemoval(node);
+        return node.value;
+    }
 
-        Node<K, V> node = table[index];
+    /**
+     * Удаляет узел из цепочки одной ячейки.
+     *
+     * @param tab   Массив ячеек.
+     * @param index Индекс ячейки.
+     * @param hash  Хеш-код ключа.
+     * @param key   Ключ для удаления.
+     * @return Удаленный {@link Node} или {@code null}.
+     */
+    private Node<K, V> removeFromBucket(Node<K, V>[] tab, int index, int hash, K key) {
+        if (tab[index] instanceof TreeBin) {
+            TreeBin<K, V> bin = (TreeBin<K, V>) tab[index];
+            Node<K, V> removed = bin.remove(hash, key);
+            if (bin.size() <= TreeBin.UNTREEIFY_THRESHOLD) {
+                tab[index] = bin.first;
+            }
+            return removed;
+        }
+        Node<K, V> node = tab[index];
         Node<K, V> prev = null;
 
         while (node != null) {
             if (node.hash == hash && Objects.equals(node.key, key)) {
                 if (prev == null) {
-                    table[index] = node.next;
+                    tab[index] = node.next;
                 } else {
                     prev.next = node.next;
                 }
-                size--;
-                modCount++;
-                return node.value;
+                return node;
             }
             prev = node;
             node = node.next;
@@ -188,6 +904,11 @@ public class HashTable<K, V> implements Iterable<Entry<K, V>> {
         return null;
     }
 
+    @Override
+    public int size() {
+        return size;
+    }
+
     /**
      * Возвращает итератор по всем ключ-значение.
      * парам в хеш-таблице.
@@ -201,8 +922,12 @@ public class HashTable<K, V> implements Iterable<Entry<K, V>> {
 
     /**
      * Внутренний класс итератора.
+     * Во время инкрементального расширения сначала обходит
+     * старый массив, затем новый.
      */
     private class HashIterator implements Iterator<Entry<K, V>> {
+        private final Node<K, V>[] lastTable;
+        private Node<K, V>[] currentTable;
         private int currentCell;
         private int expectedModCount;
         private Node<K, V> nextNode;
@@ -212,21 +937,31 @@ public class HashTable<K, V> implements Iterable<Entry<K, V>> {
          */
         HashIterator() {
             this.expectedModCount = modCount;
+            this.lastTable = table;
+            this.currentTable = (oldTable != null) ? oldTable : table;
             this.currentCell = 0;
             this.nextNode = null;
             findFirstNode();
         }
 
         /**
-         * Ищет первый узел в таблице.
+         * Ищет первый узел начиная с ячейки {@code currentCell}.
          */
         private void findFirstNode() {
-            while (currentCell < capTable) {
-                if (table[currentCell] != null) {
-                    nextNode = table[currentCell];
+            while (true) {
+                while (currentCell < currentTable.length) {
+                    if (currentTable[currentCell] != null) {
+                        nextNode = firstNode(currentTable[currentCell]);
+                        return;
+                    }
+                    currentCell++;
+                }
+                if (currentTable == lastTable) {
+                    nextNode = null;
                     return;
                 }
-                currentCell++;
+                currentTable = lastTable;
+                currentCell = 0;
             }
         }
 
@@ -239,14 +974,7 @@ public class HashTable<K, V> implements Iterable<Entry<K, V>> {
                 return;
             }
             currentCell++;
-            while (currentCell < capTable) {
-                if (table[currentCell] != null) {
-                    nextNode = table[currentCell];
-                    return;
-                }
-                currentCell++;
-            }
-            nextNode = null;
+            findFirstNode();
         }
 
         @Override
@@ -270,69 +998,169 @@ public class HashTable<K, V> implements Iterable<Entry<K, V>> {
     }
 
     /**
-     * Сравнивает эту хеш-таблицу с другой.
+     * Возвращает разделитель пар, делящийся по диапазонам ячеек.
+     * Во время инкрементального расширения диапазон охватывает
+     * сначала старый массив, затем новый.
      *
-     * @param o Объект для сравнения.
-     * @return {@code true}, если таблицы равны, иначе {@code false}.
+     * @return Разделитель {@link Entry}.
      */
     @Override
-    public boolean equals(Object o) {
-        if (this == o) {
-            return true;
-        }
-        if (!(o instanceof HashTable)) {
-            return false;
-        }
+    public Spliterator<Entry<K, V>> spliterator() {
+        int oldLength = (oldTable != null) ? oldTable.length : 0;
+        return new BucketSpliterator(oldTable, table, 0, oldLength + table.length,
+                size, true, modCount);
+    }
 
-        HashTable<K, V> otherTable = (HashTable<K, V>) o;
+    /**
+     * Выполняет действие для каждой пары. Если в таблице не меньше
+     * {@code parallelismThreshold} пар, обход идет параллельно.
+     *
+     * @param parallelismThreshold Минимальный размер для параллельного обхода.
+     * @param action               Действие.
+     */
+    public void forEach(long parallelismThreshold, BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        entries(parallelismThreshold).forEach(e -> action.accept(e.getKey(), e.getValue()));
+    }
 
-        if (otherTable.size != this.size) {
-            return false;
+    /**
+     * Сворачивает преобразованные пары. Результаты {@code null}
+     * пропускаются. Если в таблице не меньше {@code parallelismThreshold}
+     * пар, свертка идет параллельно.
+     *
+     * @param parallelismThreshold Минимальный размер для параллельной свертки.
+     * @param transformer          Преобразование пары.
+     * @param reducer              Ассоциативная функция свертки.
+     * @return Результат или {@code null}, если все преобразования дали {@code null}.
+     */
+    public <U> U reduce(long parallelismThreshold,
+                        BiFunction<? super K, ? super V, ? extends U> transformer,
+                        BinaryOperator<U> reducer) {
+        Objects.requireNonNull(transformer);
+        Objects.requireNonNull(reducer);
+        return entries(parallelismThreshold)
+                .<U>map(e -> transformer.apply(e.getKey(), e.getValue()))
+                .filter(Objects::nonNull)
+                .reduce(reducer)
+                .orElse(null);
+    }
+
+    /**
+     * Ищет пару, для которой функция возвращает не {@code null}.
+     * Параллельный поиск останавливается после первого результата,
+     * но какой из подходящих результатов вернется, не определено.
+     *
+     * @param parallelismThreshold Минимальный размер для параллельного поиска.
+     * @param searchFunction       Функция поиска.
+     * @return Результат функции или {@code null}, если ничего не найдено.
+     */
+    public <U> U search(long parallelismThreshold,
+                        BiFunction<? super K, ? super V, ? extends U> searchFunction) {
+        Objects.requireNonNull(searchFunction);
+        return entries(parallelismThreshold)
+                .<U>map(e -> searchFunction.apply(e.getKey(), e.getValue()))
+                .filter(Objects::nonNull)
+                .findAny()
+                .orElse(null);
+    }
+
+    private Stream<Entry<K, V>> entries(long parallelismThreshold) {
+        return StreamSupport.stream(spliterator(), size >= parallelismThreshold);
+    }
+
+    /**
+     * Разделитель по диапазону ячеек {@code [index, fence)}.
+     * Номера меньше длины старого массива относятся к нему,
+     * остальные — к новому.
+     */
+    private final class BucketSpliterator implements Spliterator<Entry<K, V>> {
+        private final Node<K, V>[] old;
+        private final Node<K, V>[] tab;
+        private final int oldLength;
+        private final int expectedModCount;
+        private int index;
+        private final int fence;
+        private long estimate;
+        private boolean exact;
+        private Node<K, V> current;
+
+        BucketSpliterator(Node<K, V>[] old, Node<K, V>[] tab, int origin, int fence,
+                          long estimate, boolean exact, int expectedModCount) {
+            this.old = old;
+            this.tab = tab;
+            this.oldLength = (old != null) ? old.length : 0;
+            this.expectedModCount = expectedModCount;
+            this.index = origin;
+            this.fence = fence;
+            this.estimate = estimate;
+            this.exact = exact;
         }
 
-        try {
-            for (Entry<K, V> entry : this) {
-                K key = entry.getKey();
-                V value = entry.getValue();
-                Object otherTableValue = otherTable.get(key);
+        private Node<K, V> bucket(int i) {
+            return firstNode((i < oldLength) ? old[i] : tab[i - oldLength]);
+        }
 
-                if (!Objects.equals(value, otherTableValue)) {
-                    return false;
-                }
-                if (value == null && !otherTable.check(key)) {
-                    return false;
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException(
+                        "The table was modified during the iteration.");
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Entry<K, V>> action) {
+            Objects.requireNonNull(action);
+            while (current != null || index < fence) {
+                if (current == null) {
+                    current = bucket(index++);
+                } else {
+                    Node<K, V> node = current;
+                    current = node.next;
+                    action.accept(node);
+                    checkForComodification();
+                    return true;
                 }
             }
-        } catch (NullPointerException e) {
+            checkForComodification();
             return false;
         }
-        return true;
-    }
 
-    /**
-     * Возвращает строковое представление хеш-таблицы в формате {k1=v1, k2=v2}.
-     *
-     * @return Строковое представление.
-     */
-    @Override
-    public String toString() {
-        if (size == 0) {
-            return "{}";
+        @Override
+        public void forEachRemaining(Consumer<? super Entry<K, V>> action) {
+            Objects.requireNonNull(action);
+            for (Node<K, V> node = current; node != null; node = node.next) {
+                action.accept(node);
+            }
+            current = null;
+            for (; index < fence; index++) {
+                for (Node<K, V> node = bucket(index); node != null; node = node.next) {
+                    action.accept(node);
+                }
+            }
+            checkForComodification();
         }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append("{");
-
-        Iterator<Entry<K, V>> iter = iterator();
-        while (iter.hasNext()) {
-            Entry<K, V> entry = iter.next();
-            sb.append(entry.getKey()).append("=").append(entry.getValue());
-            if (iter.hasNext()) {
-                sb.append(", ");
+        @Override
+        public Spliterator<Entry<K, V>> trySplit() {
+            int lo = index;
+            int mid = (lo + fence) >>> 1;
+            if (lo >= mid || current != null) {
+                return null;
             }
+            index = mid;
+            estimate >>>= 1;
+            exact = false;
+            return new BucketSpliterator(old, tab, lo, mid, estimate, false, expectedModCount);
         }
 
-        sb.append("}");
-        return sb.toString();
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return (exact ? Spliterator.SIZED : 0) | Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
     }
-}
\ No newline at end of file
+}
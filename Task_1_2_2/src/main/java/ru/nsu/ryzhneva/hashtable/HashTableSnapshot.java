@@ -0,0 +1,236 @@
+package ru.nsu.ryzhneva.hashtable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ConcurrentModificationException;
+import java.util.zip.CRC32C;
+
+/**
+ * Двоичный снимок содержимого таблицы.
+ * Файл состоит из заголовка, записей фиксированной длины и контрольной
+ * суммы CRC32C всех записей. Запись: байт флагов ({@code null} в ключе
+ * или значении), затем ключ и значение, закодированные {@link Codec}.
+ * Файл пишется и читается последовательно большими блоками через
+ * {@link FileChannel}, без сериализации Java.
+ *
+ * <p>Снимок сначала пишется во временный файл рядом с целевым, а затем
+ * атомарно переименовывается, поэтому прерванное сохранение не портит
+ * предыдущий снимок.
+ */
+public final class HashTableSnapshot {
+    private static final int MAGIC = 0x48545350;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final byte NULL_KEY = 1;
+    private static final byte NULL_VALUE = 2;
+
+    private HashTableSnapshot() {
+    }
+
+    /**
+     * Сохраняет все пары таблицы в файл, заменяя его атомарно.
+     *
+     * @param table      Таблица.
+     * @param path       Путь к файлу снимка.
+     * @param keyCodec   Кодек ключей.
+     * @param valueCodec Кодек значений.
+     * @throws IOException              если файл не удалось записать.
+     * @throws IllegalArgumentException если пара не помещается в запись.
+     */
+    public static <K, V> void save(Table<K, V> table, Path path, Codec<K> keyCodec,
+                                   Codec<V> valueCodec) throws IOException {
+        int width = recordWidth(keyCodec, valueCodec);
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            int count = table.size();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize(width));
+            buffer.putInt(MAGIC).putInt(VERSION)
+                    .putInt(keyCodec.width()).putInt(valueCodec.width())
+                    .putLong(count);
+            CRC32C crc = new CRC32C();
+            int written = 0;
+            for (Entry<K, V> entry : table) {
+                if (buffer.remaining() < width) {
+                    drain(channel, buffer, crc);
+                }
+                encode(buffer, buffer.position(), entry.getKey(), entry.getValue(),
+                        keyCodec, valueCodec);
+                buffer.position(buffer.position() + width);
+                written++;
+            }
+            if (written != count) {
+                throw new ConcurrentModificationException(
+                        "The table was modified during the iteration.");
+            }
+            drain(channel, buffer, crc);
+            buffer.putInt((int) crc.getValue());
+            buffer.flip();
+            writeFully(channel, buffer);
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Загружает снимок в новую хеш-таблицу.
+     * Таблица заранее расширяется под количество пар в снимке.
+     *
+     * @param path       Путь к файлу снимка.
+     * @param keyCodec   Кодек ключей.
+     * @param valueCodec Кодек значений.
+     * @return Таблица с парами из снимка.
+     * @throws IOException              если файл не удалось прочитать,
+     *                                  он не является снимком или поврежден.
+     * @throws IllegalArgumentException если ширина кодеков не совпадает с файлом.
+     */
+    public static <K, V> HashTable<K, V> load(Path path, Codec<K> keyCodec,
+                                              Codec<V> valueCodec) throws IOException {
+        int width = recordWidth(keyCodec, valueCodec);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize(width));
+            buffer.limit(HEADER_SIZE);
+            readFully(channel, buffer);
+            buffer.flip();
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a hash table snapshot: " + path);
+            }
+            if (buffer.getInt() != keyCodec.width() || buffer.getInt() != valueCodec.width()) {
+                throw new IllegalArgumentException("Codec widths do not match the file.");
+            }
+            long count = buffer.getLong();
+            if (count < 0 || count > Integer.MAX_VALUE
+                    || channel.size() != HEADER_SIZE + count * width + Integer.BYTES) {
+                throw new IOException("The snapshot is truncated: " + path);
+            }
+
+            HashTable<K, V> table = new HashTable<>();
+            table.ensureCapacity((int) count);
+            CRC32C crc = new CRC32C();
+            int perBuffer = buffer.capacity() / width;
+            long read = 0;
+            while (read < count) {
+                int batch = (int) Math.min(perBuffer, count - read);
+                buffer.clear().limit(batch * width);
+                readFully(channel, buffer);
+                buffer.flip();
+                crc.update(buffer);
+                for (int i = 0; i < batch; i++) {
+                    int offset = i * width;
+                    table.put(decodeKey(buffer, offset, keyCodec),
+                            decodeValue(buffer, offset, keyCodec, valueCodec));
+                }
+                read += batch;
+            }
+            buffer.clear().limit(Integer.BYTES);
+            readFully(channel, buffer);
+            if (buffer.getInt(0) != (int) crc.getValue()) {
+                throw new IOException("The snapshot checksum does not match: " + path);
+            }
+            return table;
+        }
+    }
+
+    /**
+     * Возвращает длину записи пары.
+     *
+     * @param keyCodec   Кодек ключей.
+     * @param valueCodec Кодек значений.
+     * @return Байт флагов, ключ и значение.
+     */
+    static int recordWidth(Codec<?> keyCodec, Codec<?> valueCodec) {
+        return 1 + keyCodec.width() + valueCodec.width();
+    }
+
+    /**
+     * Кодирует пару в запись по абсолютному смещению.
+     * Поле {@code null} заполняется нулями и отмечается флагом.
+     */
+    static <K, V> void encode(ByteBuffer buffer, int offset, K key, V value,
+                              Codec<K> keyCodec, Codec<V> valueCodec) {
+        int keyOffset = offset + 1;
+        int valueOffset = keyOffset + keyCodec.width();
+        byte flags = 0;
+        if (key == null) {
+            flags |= NULL_KEY;
+            fillZero(buffer, keyOffset, keyCodec.width());
+        } else {
+            keyCodec.write(buffer, keyOffset, key);
+        }
+        if (value == null) {
+            flags |= NULL_VALUE;
+            fillZero(buffer, valueOffset, valueCodec.width());
+        } else {
+            valueCodec.write(buffer, valueOffset, value);
+        }
+        buffer.put(offset, flags);
+    }
+
+    /**
+     * Читает ключ записи.
+     */
+    static <K> K decodeKey(ByteBuffer buffer, int offset, Codec<K> keyCodec) {
+        return ((buffer.get(offset) & NULL_KEY) != 0) ? null : keyCodec.read(buffer, offset + 1);
+    }
+
+    /**
+     * Читает значение записи.
+     */
+    static <V> V decodeValue(ByteBuffer buffer, int offset, Codec<?> keyCodec,
+                             Codec<V> valueCodec) {
+        return ((buffer.get(offset) & NULL_VALUE) != 0)
+                ? null
+                : valueCodec.read(buffer, offset + 1 + keyCodec.width());
+    }
+
+    private static void fillZero(ByteBuffer buffer, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            buffer.put(offset + i, (byte) 0);
+        }
+    }
+
+    private static int bufferSize(int width) {
+        return Math.max(BUFFER_SIZE, HEADER_SIZE + width + Integer.BYTES);
+    }
+
+    /**
+     * Дописывает накопленные байты в канал, учитывая записи в контрольной сумме.
+     * Заголовок в начале файла в сумму не входит.
+     */
+    private static void drain(FileChannel channel, ByteBuffer buffer,
+                              CRC32C crc) throws IOException {
+        buffer.flip();
+        ByteBuffer records = buffer.duplicate();
+        if (channel.position() == 0) {
+            records.position(HEADER_SIZE);
+        }
+        crc.update(records);
+        writeFully(channel, buffer);
+        buffer.clear();
+    }
+
+    static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Unexpected end of file.");
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package ru.nsu.ryzhneva.hashtable;
+
+import java.util.Arrays;
+
+/**
+ * Снимок статистики хеш-таблицы.
+ * Счетчики поиска и расширений ненулевые, только если сбор статистики
+ * включен в {@link HashTable.Builder#recordStats(boolean)}; размер,
+ * емкость и гистограмма заполненности ячеек рассчитываются всегда,
+ * в момент создания снимка.
+ */
+public final class HashTableStats {
+    private final int size;
+    private final int capacity;
+    private final long lookupCount;
+    private final long probeCount;
+    private final int maxProbeLength;
+    private final long getCount;
+    private final long hitCount;
+    private final long resizeCount;
+    private final long totalResizeNanos;
+    private final long maxResizePauseNanos;
+    private final long[] occupancyHistogram;
+
+    HashTableStats(int size, int capacity, StatsRecorder recorder, long[] occupancyHistogram) {
+        this.size = size;
+        this.capacity = capacity;
+        StatsRecorder r = (recorder != null) ? recorder : new StatsRecorder();
+        this.lookupCount = r.lookups;
+        this.probeCount = r.probes;
+        this.maxProbeLength = r.maxProbes;
+        this.getCount = r.gets;
+        this.hitCount = r.hits;
+        this.resizeCount = r.resizes;
+        this.totalResizeNanos = r.resizeNanos;
+        this.maxResizePauseNanos = r.maxPauseNanos;
+        this.occupancyHistogram = occupancyHistogram;
+    }
+
+    /**
+     * Возвращает количество пар.
+     *
+     * @return Размер таблицы.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Возвращает количество ячеек.
+     *
+     * @return Емкость таблицы.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Возвращает количество поисков узла (get, check, update, put).
+     *
+     * @return Количество поисков.
+     */
+    public long getLookupCount() {
+        return lookupCount;
+    }
+
+    /**
+     * Возвращает среднее количество узлов, просмотренных за один поиск.
+     *
+     * @return Средняя длина просмотра или {@code 0}, если поисков не было.
+     */
+    public double getAverageProbeLength() {
+        return (lookupCount == 0) ? 0 : (double) probeCount / lookupCount;
+    }
+
+    /**
+     * Возвращает наибольшее количество узлов, просмотренных за один поиск.
+     *
+     * @return Максимальная длина просмотра.
+     */
+    public int getMaxProbeLength() {
+        return maxProbeLength;
+    }
+
+    /**
+     * Возвращает количество вызовов {@code get()}.
+     *
+     * @return Количество вызовов.
+     */
+    public long getGetCount() {
+        return getCount;
+    }
+
+    /**
+     * Возвращает количество вызовов {@code get()}, нашедших ключ.
+     *
+     * @return Количество попаданий.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Возвращает долю вызовов {@code get()}, нашедших ключ.
+     *
+     * @return Доля от 0 до 1; {@code 1}, если вызовов не было.
+     */
+    public double getHitRatio() {
+        return (getCount == 0) ? 1.0 : (double) hitCount / getCount;
+    }
+
+    /**
+     * Возвращает количество расширений и сжатий.
+     *
+     * @return Количество перестроений массива ячеек.
+     */
+    public long getResizeCount() {
+        return resizeCount;
+    }
+
+    /**
+     * Возвращает суммарное время перестроений, включая постепенный перенос.
+     *
+     * @return Время в наносекундах.
+     */
+    public long getTotalResizeNanos() {
+        return totalResizeNanos;
+    }
+
+    /**
+     * Возвращает самую долгую паузу одной операции из-за перестроения.
+     *
+     * @return Время в наносекундах.
+     */
+    public long getMaxResizePauseNanos() {
+        return maxResizePauseNanos;
+    }
+
+    /**
+     * Возвращает гистограмму заполненности: i-й элемент — количество ячеек
+     * с i узлами; последний элемент учитывает и все более длинные цепочки.
+     *
+     * @return Копия гистограммы.
+     */
+    public long[] getOccupancyHistogram() {
+        return occupancyHistogram.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "HashTableStats{size=" + size
+                + ", capacity=" + capacity
+                + ", lookups=" + lookupCount
+                + ", avgProbe=" + getAverageProbeLength()
+                + ", maxProbe=" + maxProbeLength
+                + ", hitRatio=" + getHitRatio()
+                + ", resizes=" + resizeCount
+                + ", resizeNanos=" + totalResizeNanos
+                + ", maxPauseNanos=" + maxResizePauseNanos
+                + ", occupancy=" + Arrays.toString(occupancyHistogram) + "}";
+    }
+}
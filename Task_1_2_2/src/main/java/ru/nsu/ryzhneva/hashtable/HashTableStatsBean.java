@@ -0,0 +1,68 @@
+package ru.nsu.ryzhneva.hashtable;
+
+/**
+ * Реализация {@link HashTableStatsMXBean} поверх таблицы.
+ * Гистограмма рассчитывается только при чтении своего атрибута,
+ * остальные атрибуты не обходят ячейки.
+ */
+final class HashTableStatsBean implements HashTableStatsMXBean {
+    private final HashTable<?, ?> table;
+
+    HashTableStatsBean(HashTable<?, ?> table) {
+        this.table = table;
+    }
+
+    private HashTableStats counters() {
+        return table.getStats(false);
+    }
+
+    @Override
+    public int getSize() {
+        return counters().getSize();
+    }
+
+    @Override
+    public int getCapacity() {
+        return counters().getCapacity();
+    }
+
+    @Override
+    public long getLookupCount() {
+        return counters().getLookupCount();
+    }
+
+    @Override
+    public double getAverageProbeLength() {
+        return counters().getAverageProbeLength();
+    }
+
+    @Override
+    public int getMaxProbeLength() {
+        return counters().getMaxProbeLength();
+    }
+
+    @Override
+    public double getHitRatio() {
+        return counters().getHitRatio();
+    }
+
+    @Override
+    public long getResizeCount() {
+        return counters().getResizeCount();
+    }
+
+    @Override
+    public long getTotalResizeNanos() {
+        return counters().getTotalResizeNanos();
+    }
+
+    @Override
+    public long getMaxResizePauseNanos() {
+        return counters().getMaxResizePauseNanos();
+    }
+
+    @Override
+    public long[] getOccupancyHistogram() {
+        return table.getStats(true).getOccupancyHistogram();
+    }
+}
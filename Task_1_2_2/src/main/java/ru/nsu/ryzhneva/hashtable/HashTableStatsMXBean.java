@@ -0,0 +1,29 @@
+package ru.nsu.ryzhneva.hashtable;
+
+/**
+ * Управляющий интерфейс JMX для статистики хеш-таблицы.
+ * Регистрируется методом {@link HashTable#registerStatsMBean(String)}.
+ * Каждый атрибут читается из нового снимка {@link HashTableStats}.
+ */
+public interface HashTableStatsMXBean {
+
+    int getSize();
+
+    int getCapacity();
+
+    long getLookupCount();
+
+    double getAverageProbeLength();
+
+    int getMaxProbeLength();
+
+    double getHitRatio();
+
+    long getResizeCount();
+
+    long getTotalResizeNanos();
+
+    long getMaxResizePauseNanos();
+
+    long[] getOccupancyHistogram();
+}
@@ -0,0 +1,413 @@
+package ru.nsu.ryzhneva.hashtable;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Хеш-таблица с примитивными ключами {@code int}.
+ * Ключи лежат в массиве {@code int[]}, значения в параллельном массиве
+ * ссылок, с линейным пробированием, поэтому поиск не упаковывает ключ
+ * в {@link Integer} и не создает объектов. Удаление сдвигает хвост
+ * цепочки пробирования назад, так что надгробия не нужны.
+ *
+ * <p>Емкость не обязана быть степенью двойки: ячейка выбирается умножением
+ * хеша на емкость со сдвигом, поэтому таблицу можно создать ровно под
+ * ожидаемый размер.
+ *
+ * @param <V> Тип значения.
+ */
+public class IntObjectHashTable<V> {
+    private static final int DEF_INIT_CAP = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    private static final int FREE_KEY = 0;
+
+    private final float loadFactor;
+    private int[] keys;
+    private Object[] values;
+    private boolean hasFreeKey = false;
+    private V freeKeyValue;
+    private int size = 0;
+    private int threshold;
+    private int modCount = 0;
+
+    /**
+     * Создает пустую таблицу с начальной емкостью {@value #DEF_INIT_CAP}.
+     */
+    public IntObjectHashTable() {
+        this(DEF_INIT_CAP, LOAD_FACTOR);
+    }
+
+    /**
+     * Создает пустую таблицу, рассчитанную на заданное количество пар.
+     *
+     * @param expectedSize Ожидаемое количество пар.
+     * @param loadFactor   Коэффициент загрузки, от 0 до 1 не включительно.
+     * @throws IllegalArgumentException если параметры недопустимы.
+     */
+    public IntObjectHashTable(int expectedSize, float loadFactor) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must be non-negative.");
+        }
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be in (0, 1).");
+        }
+        this.loadFactor = loadFactor;
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Рассчитывает емкость, при которой {@code expected} пар не вызовут расширения.
+     */
+    private int capacityFor(int expected) {
+        long capacity = (long) Math.ceil(expected / (double) loadFactor) + 1;
+        return (int) Math.min(Math.max(capacity, DEF_INIT_CAP), MAX_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        threshold = (int) Math.min(capacity * (double) loadFactor, capacity - 1);
+    }
+
+    /**
+     * Определяет начальную ячейку для ключа.
+     * Старшие биты перемешанного ключа умножаются на емкость.
+     *
+     * @param key Ключ.
+     * @return Индекс в массивах (0...capacity-1).
+     */
+    private int getIndex(int key) {
+        int h = key * 0x9E3779B9;
+        return (int) ((h & 0xFFFFFFFFL) * keys.length >>> 32);
+    }
+
+    private int nextIndex(int i) {
+        return (i + 1 == keys.length) ? 0 : i + 1;
+    }
+
+    /**
+     * Находит ячейку с ключом.
+     *
+     * @param key Ключ, отличный от {@link #FREE_KEY}.
+     * @return Индекс ячейки или {@code -1}.
+     */
+    private int findSlot(int key) {
+        for (int i = getIndex(key); ; i = nextIndex(i)) {
+            int k = keys[i];
+            if (k == key) {
+                return i;
+            }
+            if (k == FREE_KEY) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Добавляет пару ключ-значение в таблицу.
+     * Если ключ уже существует, обновляет его значение.
+     *
+     * @param key   Ключ.
+     * @param value Значение.
+     * @return Предыдущее значение.
+     */
+    public V put(int key, V value) {
+        if (key == FREE_KEY) {
+            V prevValue = hasFreeKey ? freeKeyValue : null;
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                size++;
+                modCount++;
+            }
+            freeKeyValue = value;
+            return prevValue;
+        }
+        int i = getIndex(key);
+        for (int k = keys[i]; k != FREE_KEY; i = nextIndex(i), k = keys[i]) {
+            if (k == key) {
+                V prevValue = (V) values[i];
+                values[i] = value;
+                return prevValue;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+        modCount++;
+        if (size - (hasFreeKey ? 1 : 0) > threshold) {
+            rehash();
+        }
+        return null;
+    }
+
+    /**
+     * Возвращает значение по ключу.
+     *
+     * @param key Ключ для поиска.
+     * @return Значение, связанное с ключом.
+     */
+    public V get(int key) {
+        if (key == FREE_KEY) {
+            return hasFreeKey ? freeKeyValue : null;
+        }
+        int i = findSlot(key);
+        return (i >= 0) ? (V) values[i] : null;
+    }
+
+    /**
+     * Обновляет значение для существующего ключа.
+     *
+     * @param key   Ключ, значение которого нужно обновить.
+     * @param value Новое значение.
+     * @return Старое значение.
+     */
+    public V update(int key, V value) {
+        if (key == FREE_KEY) {
+            if (!hasFreeKey) {
+                return null;
+            }
+            V prevValue = freeKeyValue;
+            freeKeyValue = value;
+            return prevValue;
+        }
+        int i = findSlot(key);
+        if (i < 0) {
+            return null;
+        }
+        V prevValue = (V) values[i];
+        values[i] = value;
+        return prevValue;
+    }
+
+    /**
+     * Проверяет наличие ключа в таблице.
+     *
+     * @param key Ключ для проверки.
+     * @return {@code true}, если ключ найден, иначе {@code false}.
+     */
+    public boolean check(int key) {
+        return (key == FREE_KEY) ? hasFreeKey : findSlot(key) >= 0;
+    }
+
+    /**
+     * Удаляет пару ключ-значение.
+     *
+     * @param key Ключ для удаления.
+     * @return Удаленное значение.
+     */
+    public V remove(int key) {
+        if (key == FREE_KEY) {
+            if (!hasFreeKey) {
+                return null;
+            }
+            V removedValue = freeKeyValue;
+            hasFreeKey = false;
+            freeKeyValue = null;
+            size--;
+            modCount++;
+            return removedValue;
+        }
+        int i = findSlot(key);
+        if (i < 0) {
+            return null;
+        }
+        V removedValue = (V) values[i];
+        shiftKeys(i);
+        size--;
+        modCount++;
+        return removedValue;
+    }
+
+    /**
+     * Закрывает освободившуюся ячейку, сдвигая назад элементы цепочки,
+     * которые могут занять ее, не оказавшись раньше своей начальной ячейки.
+     *
+     * @param gap Индекс освободившейся ячейки.
+     */
+    private void shiftKeys(int gap) {
+        for (int i = nextIndex(gap); ; i = nextIndex(i)) {
+            int k = keys[i];
+            if (k == FREE_KEY) {
+                keys[gap] = FREE_KEY;
+                values[gap] = null;
+                return;
+            }
+            int home = getIndex(k);
+            boolean mustStay = (gap <= i) ? (gap < home && home <= i) : (gap < home || home <= i);
+            if (!mustStay) {
+                keys[gap] = k;
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+    }
+
+    /**
+     * Удваивает емкость и перераспределяет пары.
+     */
+    private void rehash() {
+        int[] prevKeys = keys;
+        Object[] prevValues = values;
+        if (prevKeys.length == MAX_CAPACITY) {
+            throw new IllegalStateException("The table is full.");
+        }
+        allocate((int) Math.min(prevKeys.length * 2L, MAX_CAPACITY));
+        for (int j = 0; j < prevKeys.length; j++) {
+            int k = prevKeys[j];
+            if (k != FREE_KEY) {
+                int i = getIndex(k);
+                while (keys[i] != FREE_KEY) {
+                    i = nextIndex(i);
+                }
+                keys[i] = k;
+                values[i] = prevValues[j];
+            }
+        }
+    }
+
+    /**
+     * Возвращает количество пар в таблице.
+     *
+     * @return Количество пар ключ-значение.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает курсор для обхода пар без упаковки.
+     *
+     * @return Новый курсор, стоящий перед первой парой.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Курсор по парам таблицы. Не создает объектов на каждую пару:
+     * после успешного {@link #advance()} ключ и значение читаются
+     * методами {@link #key()} и {@link #value()}.
+     */
+    public class Cursor {
+        private final int expectedModCount = modCount;
+        private int slot = hasFreeKey ? -2 : -1;
+        private int currentKey;
+        private V currentValue;
+        private boolean positioned = false;
+
+        /**
+         * Переходит к следующей паре.
+         *
+         * @return {@code true}, если пара есть, иначе {@code false}.
+         */
+        public boolean advance() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException(
+                        "The table was modified during the iteration.");
+            }
+            if (slot == -2) {
+                slot = -1;
+                currentKey = FREE_KEY;
+                currentValue = freeKeyValue;
+                positioned = true;
+                return true;
+            }
+            for (slot++; slot < keys.length; slot++) {
+                if (keys[slot] != FREE_KEY) {
+                    currentKey = keys[slot];
+                    currentValue = (V) values[slot];
+                    positioned = true;
+                    return true;
+                }
+            }
+            positioned = false;
+            return false;
+        }
+
+        /**
+         * Возвращает ключ текущей пары.
+         *
+         * @return Ключ.
+         */
+        public int key() {
+            ensurePositioned();
+            return currentKey;
+        }
+
+        /**
+         * Возвращает значение текущей пары.
+         *
+         * @return Значение.
+         */
+        public V value() {
+            ensurePositioned();
+            return currentValue;
+        }
+
+        private void ensurePositioned() {
+            if (!positioned) {
+                throw new NoSuchElementException("There are no elements.");
+            }
+        }
+    }
+
+    /**
+     * Сравнивает эту таблицу с другой.
+     *
+     * @param o Объект для сравнения.
+     * @return {@code true}, если таблицы содержат одинаковые пары.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntObjectHashTable)) {
+            return false;
+        }
+        IntObjectHashTable<?> other = (IntObjectHashTable<?>) o;
+        if (other.size != size) {
+            return false;
+        }
+        Cursor cursor = cursor();
+        while (cursor.advance()) {
+            if (!other.check(cursor.key())
+                    || !Objects.equals(other.get(cursor.key()), cursor.value())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 0;
+        Cursor cursor = cursor();
+        while (cursor.advance()) {
+            h += cursor.key() ^ Objects.hashCode(cursor.value());
+        }
+        return h;
+    }
+
+    /**
+     * Возвращает строковое представление таблицы в формате {k1=v1, k2=v2}.
+     *
+     * @return Строковое представление.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        Cursor cursor = cursor();
+        boolean first = true;
+        while (cursor.advance()) {
+            if (!first) {
+                sb.append(", ");
+            }
+            sb.append(cursor.key()).append("=").append(cursor.value());
+            first = false;
+        }
+        return sb.append("}").toString();
+    }
+}
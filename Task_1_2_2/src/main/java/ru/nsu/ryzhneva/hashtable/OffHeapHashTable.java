@@ -0,0 +1,522 @@
+package ru.nsu.ryzhneva.hashtable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Хеш-таблица, хранящая пары вне кучи JVM.
+ * Ключи и значения сериализуются {@link Codec} в записи фиксированной длины
+ * и лежат в ячейках открытой адресации (линейное пробирование, надгробия).
+ * Ячейка: байт состояния, хеш ключа, байты ключа, байты значения.
+ *
+ * <p>Таблица, созданная через {@link #open(Path, Codec, Codec)}, отображает
+ * файл в память ({@link MappedByteBuffer}) и переживает перезапуск процесса:
+ * повторное открытие только отображает файл, без повторной вставки пар.
+ * Таблица из {@link #create(Codec, Codec)} живет в direct-буферах.
+ * Ключи сравниваются и хешируются по закодированным байтам, поэтому хеш
+ * не зависит от {@code hashCode()} и одинаков в разных процессах.
+ * Ключ {@code null} не поддерживается.
+ *
+ * @param <K> Тип ключа.
+ * @param <V> Тип значения.
+ */
+public class OffHeapHashTable<K, V> extends AbstractTable<K, V> implements AutoCloseable {
+    private static final int MAGIC = 0x4F484854;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int KEY_WIDTH_OFFSET = 8;
+    private static final int VALUE_WIDTH_OFFSET = 12;
+    private static final int CAPACITY_OFFSET = 16;
+    private static final int SIZE_OFFSET = 20;
+    private static final int TOMBSTONES_OFFSET = 24;
+
+    private static final int DEF_INIT_CAP = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int MAX_REGION_BYTES = 1 << 30;
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    private static final byte EMPTY = 0;
+    private static final byte FULL = 1;
+    private static final byte TOMBSTONE = 2;
+    private static final byte STATE_MASK = 3;
+    private static final byte NULL_VALUE = 4;
+    private static final int HASH_OFFSET = 1;
+    private static final int KEY_OFFSET = 5;
+
+    private final Codec<K> keyCodec;
+    private final Codec<V> valueCodec;
+    private final int keyWidth;
+    private final int valueOffset;
+    private final int slotWidth;
+    private final Path path;
+    private final ByteBuffer keyScratch;
+    private Storage storage;
+    private int size = 0;
+    private int tombstones = 0;
+    private int modCount = 0;
+
+    /**
+     * Область памяти с заголовком и ячейками таблицы.
+     * Ячейки разбиты на регионы не больше {@value #MAX_REGION_BYTES} байт,
+     * так как один {@link ByteBuffer} адресует не больше 2 ГБ.
+     */
+    private static final class Storage {
+        final FileChannel channel;
+        final ByteBuffer header;
+        final ByteBuffer[] regions;
+        final int capacity;
+        final int shift;
+        final int regionShift;
+        final int regionMask;
+        final int slotWidth;
+
+        private Storage(FileChannel channel, int capacity, int slotWidth) throws IOException {
+            this.channel = channel;
+            this.capacity = capacity;
+            this.slotWidth = slotWidth;
+            this.shift = Integer.numberOfLeadingZeros(capacity) + 1;
+            int slotsPerRegion = Math.min(capacity,
+                    Integer.highestOneBit(MAX_REGION_BYTES / slotWidth));
+            this.regionShift = Integer.numberOfTrailingZeros(slotsPerRegion);
+            this.regionMask = slotsPerRegion - 1;
+            this.regions = new ByteBuffer[capacity / slotsPerRegion];
+            int regionBytes = slotsPerRegion * slotWidth;
+            if (channel == null) {
+                this.header = ByteBuffer.allocateDirect(HEADER_SIZE);
+                for (int i = 0; i < regions.length; i++) {
+                    regions[i] = ByteBuffer.allocateDirect(regionBytes);
+                }
+            } else {
+                this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+                for (int i = 0; i < regions.length; i++) {
+                    regions[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                            HEADER_SIZE + (long) i * regionBytes, regionBytes);
+                }
+            }
+        }
+
+        ByteBuffer region(int slot) {
+            return regions[slot >>> regionShift];
+        }
+
+        int offset(int slot) {
+            return (slot & regionMask) * slotWidth;
+        }
+
+        void force() {
+            if (channel == null) {
+                return;
+            }
+            ((MappedByteBuffer) header).force();
+            for (ByteBuffer region : regions) {
+                ((MappedByteBuffer) region).force();
+            }
+        }
+    }
+
+    private OffHeapHashTable(Path path, Codec<K> keyCodec, Codec<V> valueCodec) {
+        this.path = path;
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        this.keyWidth = keyCodec.width();
+        this.valueOffset = KEY_OFFSET + keyWidth;
+        this.slotWidth = valueOffset + valueCodec.width();
+        this.keyScratch = ByteBuffer.allocate(keyWidth);
+        if (slotWidth > MAX_REGION_BYTES) {
+            throw new IllegalArgumentException("Keys and values are too wide.");
+        }
+    }
+
+    /**
+     * Создает пустую таблицу в памяти вне кучи.
+     * Содержимое теряется после завершения процесса.
+     *
+     * @param keyCodec   Кодек ключей.
+     * @param valueCodec Кодек значений.
+     * @return Новая таблица.
+     */
+    public static <K, V> OffHeapHashTable<K, V> create(Codec<K> keyCodec, Codec<V> valueCodec) {
+        OffHeapHashTable<K, V> table = new OffHeapHashTable<>(null, keyCodec, valueCodec);
+        try {
+            table.storage = new Storage(null, DEF_INIT_CAP, table.slotWidth);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        table.writeHeader();
+        return table;
+    }
+
+    /**
+     * Открывает таблицу, хранящуюся в файле, или создает новый файл.
+     *
+     * @param path       Путь к файлу таблицы.
+     * @param keyCodec   Кодек ключей.
+     * @param valueCodec Кодек значений.
+     * @return Таблица, отображенная на файл.
+     * @throws IOException              если файл не удалось прочитать
+     *                                  или он не является файлом таблицы.
+     * @throws IllegalArgumentException если ширина кодеков не совпадает с файлом.
+     */
+    public static <K, V> OffHeapHashTable<K, V> open(Path path, Codec<K> keyCodec,
+                                                     Codec<V> valueCodec) throws IOException {
+        OffHeapHashTable<K, V> table = new OffHeapHashTable<>(path, keyCodec, valueCodec);
+        boolean exists = Files.exists(path) && Files.size(path) > 0;
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (!exists) {
+                table.storage = new Storage(channel, DEF_INIT_CAP, table.slotWidth);
+                table.writeHeader();
+                return table;
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt(MAGIC_OFFSET) != MAGIC
+                    || header.getInt(VERSION_OFFSET) != VERSION) {
+                throw new IOException("Not an off-heap table file: " + path);
+            }
+            if (header.getInt(KEY_WIDTH_OFFSET) != keyCodec.width()
+                    || header.getInt(VALUE_WIDTH_OFFSET) != valueCodec.width()) {
+                throw new IllegalArgumentException("Codec widths do not match the file.");
+            }
+            table.storage = new Storage(channel, header.getInt(CAPACITY_OFFSET), table.slotWidth);
+            table.size = header.getInt(SIZE_OFFSET);
+            table.tombstones = header.getInt(TOMBSTONES_OFFSET);
+            return table;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void writeHeader() {
+        ByteBuffer header = storage.header;
+        header.putInt(MAGIC_OFFSET, MAGIC);
+        header.putInt(VERSION_OFFSET, VERSION);
+        header.putInt(KEY_WIDTH_OFFSET, keyWidth);
+        header.putInt(VALUE_WIDTH_OFFSET, valueCodec.width());
+        header.putInt(CAPACITY_OFFSET, storage.capacity);
+        writeCounters();
+    }
+
+    private void writeCounters() {
+        storage.header.putInt(SIZE_OFFSET, size);
+        storage.header.putInt(TOMBSTONES_OFFSET, tombstones);
+    }
+
+    private void ensureOpen() {
+        if (storage == null) {
+            throw new IllegalStateException("The table is closed.");
+        }
+    }
+
+    /**
+     * Кодирует ключ во временный буфер и рассчитывает хеш его байтов (FNV-1a).
+     *
+     * @param key Ключ.
+     * @return Хеш-код закодированного ключа.
+     */
+    private int encodeKey(K key) {
+        ensureOpen();
+        Objects.requireNonNull(key, "Null keys are not supported.");
+        keyCodec.write(keyScratch, 0, key);
+        int h = 0x811C9DC5;
+        for (int i = 0; i < keyWidth; i++) {
+            h = (h ^ keyScratch.get(i)) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private int getIndex(int hash) {
+        return (hash * GOLDEN_RATIO) >>> storage.shift;
+    }
+
+    private boolean keyEquals(ByteBuffer region, int offset) {
+        for (int i = 0; i < keyWidth; i++) {
+            if (region.get(offset + KEY_OFFSET + i) != keyScratch.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ищет закодированный ключ.
+     *
+     * @param hash Хеш-код ключа из {@link #encodeKey(Object)}.
+     * @return Индекс ячейки с ключом или {@code -(ячейка для вставки) - 1}.
+     */
+    private int probe(int hash) {
+        int mask = storage.capacity - 1;
+        int freeSlot = -1;
+        for (int i = getIndex(hash); ; i = (i + 1) & mask) {
+            ByteBuffer region = storage.region(i);
+            int offset = storage.offset(i);
+            int state = region.get(offset) & STATE_MASK;
+            if (state == EMPTY) {
+                return -((freeSlot >= 0 ? freeSlot : i) + 1);
+            }
+            if (state == TOMBSTONE) {
+                if (freeSlot < 0) {
+                    freeSlot = i;
+                }
+            } else if (region.getInt(offset + HASH_OFFSET) == hash
+                    && keyEquals(region, offset)) {
+                return i;
+            }
+        }
+    }
+
+    private V readValue(ByteBuffer region, int offset) {
+        if ((region.get(offset) & NULL_VALUE) != 0) {
+            return null;
+        }
+        return valueCodec.read(region, offset + valueOffset);
+    }
+
+    private void writeValue(ByteBuffer region, int offset, V value) {
+        if (value == null) {
+            region.put(offset, (byte) (FULL | NULL_VALUE));
+        } else {
+            valueCodec.write(region, offset + valueOffset, value);
+            region.put(offset, FULL);
+        }
+    }
+
+    @Override
+    public V put(K key, V value) {
+        int hash = encodeKey(key);
+        int slot = probe(hash);
+        if (slot >= 0) {
+            ByteBuffer region = storage.region(slot);
+            int offset = storage.offset(slot);
+            V prevValue = readValue(region, offset);
+            writeValue(region, offset, value);
+            return prevValue;
+        }
+        slot = -slot - 1;
+        ByteBuffer region = storage.region(slot);
+        int offset = storage.offset(slot);
+        if ((region.get(offset) & STATE_MASK) == TOMBSTONE) {
+            tombstones--;
+        }
+        region.putInt(offset + HASH_OFFSET, hash);
+        region.put(offset + KEY_OFFSET, keyScratch, 0, keyWidth);
+        writeValue(region, offset, value);
+        size++;
+        modCount++;
+        if (size + tombstones > storage.capacity * LOAD_FACTOR) {
+            rehash();
+        }
+        writeCounters();
+        return null;
+    }
+
+    @Override
+    public V get(K key) {
+        int slot = probe(encodeKey(key));
+        return (slot >= 0) ? readValue(storage.region(slot), storage.offset(slot)) : null;
+    }
+
+    @Override
+    public V update(K key, V value) {
+        int slot = probe(encodeKey(key));
+        if (slot < 0) {
+            return null;
+        }
+        ByteBuffer region = storage.region(slot);
+        int offset = storage.offset(slot);
+        V prevValue = readValue(region, offset);
+        writeValue(region, offset, value);
+        return prevValue;
+    }
+
+    @Override
+    public boolean check(K key) {
+        return probe(encodeKey(key)) >= 0;
+    }
+
+    @Override
+    public V remove(K key) {
+        int slot = probe(encodeKey(key));
+        if (slot < 0) {
+            return null;
+        }
+        ByteBuffer region = storage.region(slot);
+        int offset = storage.offset(slot);
+        V removedValue = readValue(region, offset);
+        int mask = storage.capacity - 1;
+        int next = (slot + 1) & mask;
+        if ((storage.region(next).get(storage.offset(next)) & STATE_MASK) == EMPTY) {
+            region.put(offset, EMPTY);
+            for (int j = (slot - 1) & mask; stateAt(j) == TOMBSTONE; j = (j - 1) & mask) {
+                storage.region(j).put(storage.offset(j), EMPTY);
+                tombstones--;
+            }
+        } else {
+            region.put(offset, TOMBSTONE);
+            tombstones++;
+        }
+        size--;
+        modCount++;
+        writeCounters();
+        return removedValue;
+    }
+
+    private int stateAt(int slot) {
+        return storage.region(slot).get(storage.offset(slot)) & STATE_MASK;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Перестраивает таблицу в новой области памяти, удаляя надгробия.
+     * Ячейки копируются побайтно, без декодирования.
+     * Для файловой таблицы новая область строится во временном файле,
+     * который затем атомарно заменяет исходный.
+     */
+    private void rehash() {
+        int capacity = storage.capacity;
+        if (size >= capacity * LOAD_FACTOR / 2) {
+            if (capacity == MAX_CAPACITY) {
+                throw new IllegalStateException("The table is full.");
+            }
+            capacity <<= 1;
+        }
+        try {
+            Path tmp = null;
+            FileChannel channel = null;
+            if (path != null) {
+                tmp = path.resolveSibling(path.getFileName() + ".resize");
+                Files.deleteIfExists(tmp);
+                channel = FileChannel.open(tmp, StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+            Storage prev = storage;
+            Storage next = new Storage(channel, capacity, slotWidth);
+            storage = next;
+            int mask = capacity - 1;
+            for (int j = 0; j < prev.capacity; j++) {
+                ByteBuffer src = prev.region(j);
+                int srcOffset = prev.offset(j);
+                if ((src.get(srcOffset) & STATE_MASK) != FULL) {
+                    continue;
+                }
+                int i = getIndex(src.getInt(srcOffset + HASH_OFFSET));
+                while (stateAt(i) != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                next.region(i).put(next.offset(i), src, srcOffset, slotWidth);
+            }
+            tombstones = 0;
+            writeHeader();
+            if (path != null) {
+                next.force();
+                prev.channel.close();
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Сбрасывает изменения файловой таблицы на диск.
+     */
+    public void flush() {
+        ensureOpen();
+        storage.force();
+    }
+
+    /**
+     * Закрывает таблицу. Изменения файловой таблицы сбрасываются на диск.
+     *
+     * @throws IOException если файл не удалось закрыть.
+     */
+    @Override
+    public void close() throws IOException {
+        if (storage == null) {
+            return;
+        }
+        storage.force();
+        if (storage.channel != null) {
+            storage.channel.close();
+        }
+        storage = null;
+    }
+
+    /**
+     * Возвращает итератор по всем парам ключ-значение.
+     * Пары декодируются при обходе.
+     *
+     * @return Итератор {@link Entry}
+     */
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        ensureOpen();
+        return new SlotIterator();
+    }
+
+    /**
+     * Внутренний класс итератора по ячейкам.
+     */
+    private class SlotIterator implements Iterator<Entry<K, V>> {
+        private final int expectedModCount;
+        private int nextSlot;
+
+        SlotIterator() {
+            this.expectedModCount = modCount;
+            this.nextSlot = findSlotFrom(0);
+        }
+
+        private int findSlotFrom(int from) {
+            for (int i = from; i < storage.capacity; i++) {
+                if (stateAt(i) == FULL) {
+                    return i;
+                }
+            }
+            return storage.capacity;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException(
+                        "The table was modified during the iteration.");
+            }
+            ensureOpen();
+            return nextSlot < storage.capacity;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("There are no elements.");
+            }
+            int slot = nextSlot;
+            nextSlot = findSlotFrom(slot + 1);
+            ByteBuffer region = storage.region(slot);
+            int offset = storage.offset(slot);
+            K key = keyCodec.read(region, offset + KEY_OFFSET);
+            return new Node<>(key, readValue(region, offset),
+                    region.getInt(offset + HASH_OFFSET), null);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package ru.nsu.ryzhneva.hashtable;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Хеш-таблица с открытой адресацией и линейным пробированием.
+ * Пары хранятся в параллельных массивах ключей, значений и хешей,
+ * поэтому при вставке не создаются узлы {@link Node}.
+ * Удаленные ячейки помечаются надгробиями (tombstone),
+ * которые очищаются при перестроении таблицы.
+ *
+ * @param <K> Тип ключа.
+ * @param <V> Тип значения.
+ */
+public class OpenAddressingHashTable<K, V> extends AbstractTable<K, V> {
+    private static final int DEF_INIT_CAP = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+    private static final Object NULL_KEY = new Object();
+    private static final Object TOMBSTONE = new Object();
+
+    private Object[] keys;
+    private Object[] values;
+    private int[] hashes;
+    private int shift;
+    private int size = 0;
+    private int tombstones = 0;
+    private int modCount = 0;
+
+    /**
+     * Создает пустую хеш-таблицу с начальной емкостью
+     * {@value #DEF_INIT_CAP}.
+     */
+    public OpenAddressingHashTable() {
+        allocate(DEF_INIT_CAP);
+    }
+
+    /**
+     * Выделяет массивы заданной емкости.
+     *
+     * @param capacity Емкость, степень двойки.
+     */
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        hashes = new int[capacity];
+        shift = Integer.numberOfLeadingZeros(capacity) + 1;
+    }
+
+    /**
+     * Рассчитывает хеш-код для ключа.
+     *
+     * @param key Ключ для хеширования.
+     * @return Улучшенный хеш-код.
+     */
+    private int hash(Object key) {
+        if (key == null) {
+            return 0;
+        }
+        int h = key.hashCode();
+        return (h ^ (h >>> 16));
+    }
+
+    /**
+     * Определяет начальную ячейку пробирования.
+     * Используется мультипликативное (фибоначчиево) хеширование,
+     * чтобы близкие хеши не образовывали кластеры.
+     *
+     * @param hash Хеш-код ключа.
+     * @return Индекс в массивах (0...capacity-1).
+     */
+    private int getIndex(int hash) {
+        return (hash * GOLDEN_RATIO) >>> shift;
+    }
+
+    /**
+     * Заменяет {@code null} на внутренний маркер.
+     */
+    private static Object maskNull(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    /**
+     * Восстанавливает {@code null} из внутреннего маркера.
+     */
+    private K unmaskNull(Object key) {
+        return key == NULL_KEY ? null : (K) key;
+    }
+
+    /**
+     * Находит ячейку с ключом.
+     *
+     * @param key Ключ для поиска.
+     * @return Индекс ячейки или {@code -1}, если ключ отсутствует.
+     */
+    private int findSlot(K key) {
+        Object masked = maskNull(key);
+        int hash = hash(key);
+        int mask = keys.length - 1;
+        for (int i = getIndex(hash); ; i = (i + 1) & mask) {
+            Object k = keys[i];
+            if (k == null) {
+                return -1;
+            }
+            if (k != TOMBSTONE && hashes[i] == hash && (k == masked || k.equals(masked))) {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * Перестраивает таблицу, удаляя надгробия.
+     * Емкость удваивается, только если живых пар слишком много.
+     */
+    private void rehash() {
+        int capacity = keys.length;
+        if (size >= capacity * LOAD_FACTOR / 2) {
+            capacity <<= 1;
+        }
+        Object[] prevKeys = keys;
+        Object[] prevValues = values;
+        int[] prevHashes = hashes;
+
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int j = 0; j < prevKeys.length; j++) {
+            Object k = prevKeys[j];
+            if (k == null || k == TOMBSTONE) {
+                continue;
+            }
+            int i = getIndex(prevHashes[j]);
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = k;
+            values[i] = prevValues[j];
+            hashes[i] = prevHashes[j];
+        }
+        tombstones = 0;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        Object masked = maskNull(key);
+        int hash = hash(key);
+        int mask = keys.length - 1;
+        int freeSlot = -1;
+        int i = getIndex(hash);
+        for (Object k = keys[i]; k != null; i = (i + 1) & mask, k = keys[i]) {
+            if (k == TOMBSTONE) {
+                if (freeSlot < 0) {
+                    freeSlot = i;
+                }
+            } else if (hashes[i] == hash && (k == masked || k.equals(masked))) {
+                V prevValue = (V) values[i];
+                values[i] = value;
+                return prevValue;
+            }
+        }
+        if (freeSlot >= 0) {
+            tombstones--;
+        } else {
+            freeSlot = i;
+        }
+        keys[freeSlot] = masked;
+        values[freeSlot] = value;
+        hashes[freeSlot] = hash;
+        size++;
+        modCount++;
+        if (size + tombstones > keys.length * LOAD_FACTOR) {
+            rehash();
+        }
+        return null;
+    }
+
+    @Override
+    public V get(K key) {
+        int i = findSlot(key);
+        return (i >= 0) ? (V) values[i] : null;
+    }
+
+    @Override
+    public V update(K key, V value) {
+        int i = findSlot(key);
+        if (i >= 0) {
+            V prevValue = (V) values[i];
+            values[i] = value;
+            return prevValue;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean check(K key) {
+        return findSlot(key) >= 0;
+    }
+
+    /**
+     * Удаляет пару ключ-значение.
+     * Если следующая ячейка пуста, цепочка пробирования обрывается здесь,
+     * и ячейка вместе с предшествующими надгробиями сразу становится пустой.
+     *
+     * @param key Ключ для удаления.
+     * @return Удаленное значение.
+     */
+    @Override
+    public V remove(K key) {
+        int i = findSlot(key);
+        if (i < 0) {
+            return null;
+        }
+        V removedValue = (V) values[i];
+        values[i] = null;
+        int mask = keys.length - 1;
+        if (keys[(i + 1) & mask] == null) {
+            keys[i] = null;
+            for (int j = (i - 1) & mask; keys[j] == TOMBSTONE; j = (j - 1) & mask) {
+                keys[j] = null;
+                tombstones--;
+            }
+        } else {
+            keys[i] = TOMBSTONE;
+            tombstones++;
+        }
+        size--;
+        modCount++;
+        return removedValue;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает итератор по всем парам ключ-значение.
+     *
+     * @return Итератор {@link Entry}
+     */
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        return new SlotIterator();
+    }
+
+    /**
+     * Внутренний класс итератора по ячейкам массивов.
+     */
+    private class SlotIterator implements Iterator<Entry<K, V>> {
+        private final int expectedModCount;
+        private int nextSlot;
+
+        /**
+         * Конструктор итератора.
+         */
+        SlotIterator() {
+            this.expectedModCount = modCount;
+            this.nextSlot = findSlotFrom(0);
+        }
+
+        /**
+         * Ищет первую занятую ячейку начиная с заданной.
+         */
+        private int findSlotFrom(int from) {
+            for (int i = from; i < keys.length; i++) {
+                if (keys[i] != null && keys[i] != TOMBSTONE) {
+                    return i;
+                }
+            }
+            return keys.length;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException(
+                        "The table was modified during the iteration.");
+            }
+            return nextSlot < keys.length;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("There are no elements.");
+            }
+            int i = nextSlot;
+            nextSlot = findSlotFrom(i + 1);
+            return new Node<>(unmaskNull(keys[i]), (V) values[i], hashes[i], null);
+        }
+    }
+}
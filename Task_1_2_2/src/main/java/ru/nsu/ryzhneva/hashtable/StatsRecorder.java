@@ -0,0 +1,66 @@
+package ru.nsu.ryzhneva.hashtable;
+
+/**
+ * Счетчики хеш-таблицы, которые обновляются на горячем пути.
+ * Создается только при включенном сборе статистики; таблица без
+ * статистики хранит {@code null} и платит за это одной проверкой.
+ * Как и сама таблица, счетчики не потокобезопасны: читатель из другого
+ * потока (например, через JMX) видит их с возможным отставанием.
+ */
+final class StatsRecorder {
+    long lookups;
+    long probes;
+    int maxProbes;
+    long gets;
+    long hits;
+    long resizes;
+    long resizeNanos;
+    long maxPauseNanos;
+
+    /**
+     * Учитывает один поиск узла.
+     *
+     * @param probeCount Количество просмотренных узлов.
+     */
+    void recordLookup(int probeCount) {
+        lookups++;
+        probes += probeCount;
+        if (probeCount > maxProbes) {
+            maxProbes = probeCount;
+        }
+    }
+
+    /**
+     * Учитывает вызов {@code get()}.
+     *
+     * @param hit {@code true}, если ключ найден.
+     */
+    void recordGet(boolean hit) {
+        gets++;
+        if (hit) {
+            hits++;
+        }
+    }
+
+    /**
+     * Учитывает начало расширения или сжатия.
+     *
+     * @param nanos Длительность вызова.
+     */
+    void recordResize(long nanos) {
+        resizes++;
+        recordPause(nanos);
+    }
+
+    /**
+     * Учитывает перенос части ячеек при постепенном расширении.
+     *
+     * @param nanos Длительность переноса.
+     */
+    void recordPause(long nanos) {
+        resizeNanos += nanos;
+        if (nanos > maxPauseNanos) {
+            maxPauseNanos = nanos;
+        }
+    }
+}
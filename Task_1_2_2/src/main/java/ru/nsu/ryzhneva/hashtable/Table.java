@@ -0,0 +1,112 @@
+package ru.nsu.ryzhneva.hashtable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Интерфейс ассоциативной таблицы ключ-значение.
+ * Позволяет заменять одну реализацию хеш-таблицы другой,
+ * не меняя вызывающий код.
+ *
+ * @param <K> Тип ключа.
+ * @param <V> Тип значения.
+ */
+public interface Table<K, V> extends Iterable<Entry<K, V>> {
+
+    /**
+     * Добавляет пару ключ-значение в таблицу.
+     * Если ключ уже существует, обновляет его значение.
+     *
+     * @param key   Ключ.
+     * @param value Значение.
+     * @return Предыдущее значение.
+     */
+    V put(K key, V value);
+
+    /**
+     * Возвращает значение по ключу.
+     *
+     * @param key Ключ для поиска.
+     * @return Значение, связанное с ключом.
+     */
+    V get(K key);
+
+    /**
+     * Обновляет значение для существующего ключа.
+     *
+     * @param key   Ключ, значение которого нужно обновить.
+     * @param value Новое значение.
+     * @return Старое значение.
+     */
+    V update(K key, V value);
+
+    /**
+     * Проверяет наличие ключа в таблице.
+     *
+     * @param key Ключ для проверки.
+     * @return {@code true}, если ключ найден, иначе {@code false}.
+     */
+    boolean check(K key);
+
+    /**
+     * Удаляет пару ключ-значение.
+     *
+     * @param key Ключ для удаления.
+     * @return Удаленное значение.
+     */
+    V remove(K key);
+
+    /**
+     * Возвращает количество пар в таблице.
+     *
+     * @return Количество пар ключ-значение.
+     */
+    int size();
+
+    /**
+     * Добавляет все пары другой таблицы.
+     *
+     * @param other Таблица, пары которой нужно добавить.
+     */
+    default void putAll(Table<? extends K, ? extends V> other) {
+        for (Entry<? extends K, ? extends V> entry : other) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Возвращает значения для массива ключей.
+     *
+     * @param keys Ключи для поиска.
+     * @return Список значений, i-й элемент соответствует {@code keys[i]}.
+     */
+    default List<V> getAll(K[] keys) {
+        List<V> values = new ArrayList<>(keys.length);
+        for (K key : keys) {
+            values.add(get(key));
+        }
+        return values;
+    }
+
+    /**
+     * Возвращает последовательный поток пар таблицы.
+     *
+     * @return Поток {@link Entry}.
+     */
+    default Stream<Entry<K, V>> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Возвращает параллельный поток пар таблицы.
+     * Насколько хорошо он делится между потоками,
+     * зависит от {@link #spliterator()} реализации.
+     *
+     * @return Поток {@link Entry}.
+     */
+    default Stream<Entry<K, V>> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+}
@@ -0,0 +1,335 @@
+package ru.nsu.ryzhneva.hashtable;
+
+import java.util.Objects;
+
+/**
+ * Ячейка хеш-таблицы, цепочка которой преобразована в сбалансированное
+ * (АВЛ) дерево. Хранится в массиве ячеек вместо первого узла цепочки.
+ * Сами узлы {@link Node} не пересоздаются: дерево строится из оберток,
+ * а узлы по-прежнему связаны через {@code next}, начиная с {@link #first},
+ * поэтому обход и перенос ячейки работают как со списком.
+ *
+ * <p>Порядок в дереве: по хешу, затем по имени класса ключа, затем
+ * через {@link Comparable}, если ключи одного сравнимого класса, затем
+ * по {@link System#identityHashCode}. Такой порядок транзитивен, поэтому
+ * повороты не нарушают его. Ключи, неразличимые по хешу, классу
+ * и {@link Comparable}, при поиске просматриваются в обоих поддеревьях.
+ *
+ * @param <K> Тип ключа.
+ * @param <V> Тип значения.
+ */
+final class TreeBin<K, V> extends Node<K, V> {
+    /**
+     * Длина цепочки, после которой она превращается в дерево.
+     */
+    static final int TREEIFY_THRESHOLD = 8;
+    /**
+     * Размер дерева, при котором оно снова становится списком.
+     */
+    static final int UNTREEIFY_THRESHOLD = 6;
+
+    Node<K, V> first;
+    private TreeEntry<K, V> firstEntry;
+    private TreeEntry<K, V> root;
+    private int count = 0;
+
+    /**
+     * Обертка узла в дереве.
+     */
+    private static final class TreeEntry<K, V> {
+        final Node<K, V> node;
+        TreeEntry<K, V> left;
+        TreeEntry<K, V> right;
+        TreeEntry<K, V> prev;
+        TreeEntry<K, V> next;
+        int height = 1;
+
+        TreeEntry(Node<K, V> node) {
+            this.node = node;
+        }
+    }
+
+    /**
+     * Создает пустую ячейку-дерево.
+     */
+    private TreeBin() {
+        super(null, null, 0, null);
+    }
+
+    /**
+     * Строит дерево из цепочки узлов.
+     *
+     * @param head Первый узел цепочки.
+     * @return Ячейка-дерево с теми же узлами.
+     */
+    static <K, V> TreeBin<K, V> treeify(Node<K, V> head) {
+        TreeBin<K, V> bin = new TreeBin<>();
+        Node<K, V> node = head;
+        while (node != null) {
+            Node<K, V> next = node.next;
+            bin.add(node);
+            node = next;
+        }
+        return bin;
+    }
+
+    /**
+     * Проверяет, длиннее ли цепочка порога {@link #TREEIFY_THRESHOLD}.
+     * Просматривает не больше порога узлов.
+     *
+     * @param head Первый узел цепочки.
+     * @return {@code true}, если цепочку пора превратить в дерево.
+     */
+    static boolean exceedsThreshold(Node<?, ?> head) {
+        int length = 0;
+        for (Node<?, ?> node = head; node != null; node = node.next) {
+            if (++length > TREEIFY_THRESHOLD) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Возвращает количество узлов в дереве.
+     *
+     * @return Количество узлов.
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * Ищет узел по ключу.
+     *
+     * @param hash Хеш-код ключа.
+     * @param key  Ключ для поиска.
+     * @return Найденный {@link Node} или {@code null}.
+     */
+    Node<K, V> find(int hash, Object key) {
+        TreeEntry<K, V> entry = findEntry(root, hash, key);
+        return (entry != null) ? entry.node : null;
+    }
+
+    /**
+     * Добавляет узел, ключа которого еще нет в дереве.
+     *
+     * @param node Новый узел.
+     */
+    void add(Node<K, V> node) {
+        TreeEntry<K, V> entry = new TreeEntry<>(node);
+        entry.next = firstEntry;
+        if (firstEntry != null) {
+            firstEntry.prev = entry;
+        }
+        firstEntry = entry;
+        node.next = first;
+        first = node;
+        root = insert(root, entry);
+        count++;
+    }
+
+    /**
+     * Удаляет узел по ключу.
+     *
+     * @param hash Хеш-код ключа.
+     * @param key  Ключ для удаления.
+     * @return Удаленный {@link Node} или {@code null}.
+     */
+    Node<K, V> remove(int hash, Object key) {
+        TreeEntry<K, V> entry = findEntry(root, hash, key);
+        if (entry == null) {
+            return null;
+        }
+        root = delete(root, entry);
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+            entry.prev.node.next = entry.node.next;
+        } else {
+            firstEntry = entry.next;
+            first = entry.node.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        count--;
+        return entry.node;
+    }
+
+    /**
+     * Сравнивает ключи по хешу, имени класса и, если ключи одного
+     * сравнимого класса, через {@link Comparable}.
+     *
+     * @return Результат сравнения или {@code 0}, если ключи неразличимы.
+     */
+    private static int compareKeys(int h1, Object k1, int h2, Object k2) {
+        if (h1 != h2) {
+            return Integer.compare(h1, h2);
+        }
+        if (k1 == null || k2 == null) {
+            return (k1 == null) ? ((k2 == null) ? 0 : -1) : 1;
+        }
+        if (k1.getClass() != k2.getClass()) {
+            return k1.getClass().getName().compareTo(k2.getClass().getName());
+        }
+        if (k1 instanceof Comparable) {
+            return ((Comparable<Object>) k1).compareTo(k2);
+        }
+        return 0;
+    }
+
+    /**
+     * Порядок оберток при вставке: ключи, затем
+     * {@link System#identityHashCode} ключей.
+     */
+    private static int compareEntries(TreeEntry<?, ?> a, TreeEntry<?, ?> b) {
+        int cmp = compareKeys(a.node.hash, a.node.key, b.node.hash, b.node.key);
+        return (cmp != 0) ? cmp : Integer.compare(System.identityHashCode(a.node.key),
+                System.identityHashCode(b.node.key));
+    }
+
+    /**
+     * Ищет обертку по ключу. Если ключи неразличимы по порядку,
+     * но не равны, просматриваются оба поддерева.
+     */
+    private TreeEntry<K, V> findEntry(TreeEntry<K, V> start, int hash, Object key) {
+        TreeEntry<K, V> p = start;
+        while (p != null) {
+            int cmp = compareKeys(hash, key, p.node.hash, p.node.key);
+            if (cmp < 0) {
+                p = p.left;
+            } else if (cmp > 0) {
+                p = p.right;
+            } else {
+                if (Objects.equals(key, p.node.key)) {
+                    return p;
+                }
+                TreeEntry<K, V> q = findEntry(p.right, hash, key);
+                if (q != null) {
+                    return q;
+                }
+                p = p.left;
+            }
+        }
+        return null;
+    }
+
+    private TreeEntry<K, V> insert(TreeEntry<K, V> p, TreeEntry<K, V> entry) {
+        if (p == null) {
+            return entry;
+        }
+        if (compareEntries(entry, p) < 0) {
+            p.left = insert(p.left, entry);
+        } else {
+            p.right = insert(p.right, entry);
+        }
+        return balance(p);
+    }
+
+    /**
+     * Удаляет обертку из поддерева. Путь к ней определяется по ключам,
+     * а при неразличимых ключах — поиском обертки в левом поддереве.
+     */
+    private TreeEntry<K, V> delete(TreeEntry<K, V> p, TreeEntry<K, V> entry) {
+        if (p == entry) {
+            if (p.left == null) {
+                return p.right;
+            }
+            if (p.right == null) {
+                return p.left;
+            }
+            TreeEntry<K, V> successor = p.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = deleteMin(p.right);
+            successor.left = p.left;
+            return balance(successor);
+        }
+        int cmp = compareKeys(entry.node.hash, entry.node.key, p.node.hash, p.node.key);
+        if (cmp < 0 || (cmp == 0 && contains(p.left, entry))) {
+            p.left = delete(p.left, entry);
+        } else {
+            p.right = delete(p.right, entry);
+        }
+        return balance(p);
+    }
+
+    /**
+     * Проверяет, есть ли обертка в поддереве.
+     */
+    private static boolean contains(TreeEntry<?, ?> p, TreeEntry<?, ?> entry) {
+        while (p != null) {
+            if (p == entry) {
+                return true;
+            }
+            int cmp = compareKeys(entry.node.hash, entry.node.key, p.node.hash, p.node.key);
+            if (cmp < 0) {
+                p = p.left;
+            } else if (cmp > 0) {
+                p = p.right;
+            } else {
+                if (contains(p.right, entry)) {
+                    return true;
+                }
+                p = p.left;
+            }
+        }
+        return false;
+    }
+
+    private TreeEntry<K, V> deleteMin(TreeEntry<K, V> p) {
+        if (p.left == null) {
+            return p.right;
+        }
+        p.left = deleteMin(p.left);
+        return balance(p);
+    }
+
+    private static int height(TreeEntry<?, ?> p) {
+        return (p != null) ? p.height : 0;
+    }
+
+    private static void updateHeight(TreeEntry<?, ?> p) {
+        p.height = Math.max(height(p.left), height(p.right)) + 1;
+    }
+
+    private TreeEntry<K, V> rotateRight(TreeEntry<K, V> p) {
+        TreeEntry<K, V> q = p.left;
+        p.left = q.right;
+        q.right = p;
+        updateHeight(p);
+        updateHeight(q);
+        return q;
+    }
+
+    private TreeEntry<K, V> rotateLeft(TreeEntry<K, V> p) {
+        TreeEntry<K, V> q = p.right;
+        p.right = q.left;
+        q.left = p;
+        updateHeight(p);
+        updateHeight(q);
+        return q;
+    }
+
+    /**
+     * Восстанавливает АВЛ-баланс в вершине.
+     */
+    private TreeEntry<K, V> balance(TreeEntry<K, V> p) {
+        updateHeight(p);
+        int diff = height(p.left) - height(p.right);
+        if (diff > 1) {
+            if (height(p.left.left) < height(p.left.right)) {
+                p.left = rotateLeft(p.left);
+            }
+            return rotateRight(p);
+        }
+        if (diff < -1) {
+            if (height(p.right.right) < height(p.right.left)) {
+                p.right = rotateRight(p.right);
+            }
+            return rotateLeft(p);
+        }
+        return p;
+    }
+}
@@ -0,0 +1,20 @@
+package ru.nsu.ryzhneva.hashtable;
+
+/**
+ * Вес пары в кеше, ограниченном суммарным весом.
+ *
+ * @param <K> Тип ключа.
+ * @param <V> Тип значения.
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+
+    /**
+     * Рассчитывает вес пары.
+     *
+     * @param key   Ключ.
+     * @param value Значение.
+     * @return Неотрицательный вес.
+     */
+    int weigh(K key, V value);
+}
@@ -0,0 +1,138 @@
+package ru.nsu.ryzhneva;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import ru.nsu.ryzhneva.hashtable.CachingHashTable;
+
+/**
+ * Тесты для класса CachingHashTable.
+ */
+class CachingHashTableTest {
+
+    @Test
+    void testLruEviction() {
+        CachingHashTable<String, Integer> cache = new CachingHashTable<>(3);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+        assertEquals(1, cache.get("a"), "Access moves 'a' to the recent end.");
+        cache.put("d", 4);
+
+        assertEquals(3, cache.size());
+        assertFalse(cache.check("b"), "The least recently used key is evicted.");
+        assertTrue(cache.check("a"));
+        assertTrue(cache.check("c"));
+        assertTrue(cache.check("d"));
+
+        cache.update("c", 30);
+        cache.put("e", 5);
+        assertFalse(cache.check("a"), "update() counts as an access.");
+        assertTrue(cache.check("c"));
+
+        cache.check("d");
+        cache.put("f", 6);
+        assertFalse(cache.check("d"), "check() does not count as an access.");
+    }
+
+    @Test
+    void testStats() {
+        CachingHashTable<Integer, Integer> cache = new CachingHashTable<>(2);
+        assertEquals(1.0, cache.stats().hitRate());
+        cache.put(1, 1);
+        cache.put(2, 2);
+        cache.put(3, 3);
+        cache.get(1);
+        cache.get(2);
+        cache.get(3);
+        cache.getAll(new Integer[]{2, 4});
+
+        CachingHashTable.Stats stats = cache.stats();
+        assertEquals(3, stats.hitCount());
+        assertEquals(2, stats.missCount());
+        assertEquals(1, stats.evictionCount());
+        assertEquals(0.6, stats.hitRate(), 1e-9);
+    }
+
+    @Test
+    void testWeightBound() {
+        CachingHashTable<String, String> cache =
+                new CachingHashTable<>(10, (key, value) -> value.length(), false);
+        cache.put("a", "12345");
+        cache.put("b", "1234");
+        assertEquals(9, cache.weightedSize());
+        cache.put("c", "12");
+        assertFalse(cache.check("a"));
+        assertEquals(6, cache.weightedSize());
+
+        cache.put("b", "123456789");
+        assertFalse(cache.check("c"), "A heavier value evicts older entries.");
+        assertEquals(9, cache.weightedSize());
+        assertEquals(1, cache.size());
+
+        cache.put("huge", "12345678901");
+        assertEquals(0, cache.size(), "An entry heavier than the bound is not kept.");
+        assertEquals(0, cache.weightedSize());
+
+        cache.put("empty", "");
+        assertEquals(1, cache.size(), "An empty value has zero weight.");
+    }
+
+    @Test
+    void testRemoveAndNulls() {
+        CachingHashTable<String, Integer> cache = new CachingHashTable<>(2, true);
+        cache.put(null, null);
+        cache.put("a", 1);
+        assertNull(cache.remove(null));
+        assertEquals(1, cache.weightedSize());
+        cache.put("b", 2);
+        cache.put("c", 3);
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.weightedSize());
+        assertThrows(IllegalArgumentException.class, () -> new CachingHashTable<>(-1));
+        CachingHashTable<String, Integer> negative =
+                new CachingHashTable<>(10, (key, value) -> value, false);
+        assertThrows(IllegalArgumentException.class, () -> negative.put("a", -1));
+        assertEquals(0, negative.size());
+    }
+
+    @Test
+    void testTinyLfuKeepsFrequentKeys() {
+        int capacity = 100;
+        CachingHashTable<Integer, Integer> lru = new CachingHashTable<>(capacity);
+        CachingHashTable<Integer, Integer> tinyLfu = new CachingHashTable<>(capacity, true);
+        for (CachingHashTable<Integer, Integer> cache : Arrays.asList(lru, tinyLfu)) {
+            for (int round = 0; round < 20; round++) {
+                for (int hot = 0; hot < 50; hot++) {
+                    if (cache.get(hot) == null) {
+                        cache.put(hot, hot);
+                    }
+                }
+                // Однократный проход по большому числу редких ключей.
+                for (int cold = 1000 + round * 500; cold < 1500 + round * 500; cold++) {
+                    if (cache.get(cold) == null) {
+                        cache.put(cold, cold);
+                    }
+                }
+            }
+            assertTrue(cache.size() <= capacity);
+            assertEquals(cache.size(), cache.weightedSize());
+        }
+        assertTrue(tinyLfu.stats().hitCount() > 15 * 50, "Hot keys must survive the scan.");
+        assertTrue(tinyLfu.stats().hitRate() > lru.stats().hitRate() * 2,
+                "TinyLFU must beat LRU on a scan-heavy workload: "
+                        + tinyLfu.stats() + " vs " + lru.stats());
+        int hotKept = 0;
+        for (int hot = 0; hot < 50; hot++) {
+            if (tinyLfu.check(hot)) {
+                hotKept++;
+            }
+        }
+        assertTrue(hotKept > 40, "Hot keys kept: " + hotKept);
+    }
+}
@@ -0,0 +1,141 @@
+package ru.nsu.ryzhneva;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.nsu.ryzhneva.hashtable.ConcurrentHashTable;
+import ru.nsu.ryzhneva.hashtable.Entry;
+import ru.nsu.ryzhneva.hashtable.HashTable;
+
+/**
+ * Тесты для класса ConcurrentHashTable.
+ */
+class ConcurrentHashTableTest {
+
+    private static final int THREADS = 8;
+    private static final int KEYS_PER_THREAD = 20_000;
+
+    private ConcurrentHashTable<String, Integer> table;
+
+    @BeforeEach
+    void setUp() {
+        table = new ConcurrentHashTable<>();
+    }
+
+    @Test
+    void testSingleThreadOperations() {
+        assertNull(table.put("one", 1));
+        assertEquals(1, table.put("one", 10));
+        assertEquals(10, table.update("one", 100));
+        assertNull(table.update("two", 2), "update() must not add keys");
+        assertFalse(table.check("two"));
+        assertTrue(table.check("one"));
+        table.put("Aa", 1);
+        table.put("BB", 2);
+        assertEquals(1, table.remove("Aa"));
+        assertEquals(2, table.get("BB"));
+        assertNull(table.remove("Aa"));
+        assertEquals(2, table.size());
+
+        HashTable<String, Integer> expected = new HashTable<>();
+        expected.put("one", 100);
+        expected.put("BB", 2);
+        assertEquals(expected, table);
+    }
+
+    @Test
+    void testNullsRejected() {
+        assertThrows(NullPointerException.class, () -> table.put(null, 1));
+        assertThrows(NullPointerException.class, () -> table.put("key", null));
+        assertThrows(NullPointerException.class, () -> table.get(null));
+        assertThrows(NullPointerException.class, () -> table.remove(null));
+    }
+
+    @Test
+    void testConcurrentPutsAndReads() throws InterruptedException {
+        AtomicBoolean failed = new AtomicBoolean(false);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int id = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < KEYS_PER_THREAD; i++) {
+                    String key = id + ":" + i;
+                    table.put(key, i);
+                    if (!Integer.valueOf(i).equals(table.get(key))) {
+                        failed.set(true);
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertFalse(failed.get(), "A thread must see its own writes.");
+        assertEquals(THREADS * KEYS_PER_THREAD, table.size());
+        for (int t = 0; t < THREADS; t++) {
+            for (int i = 0; i < KEYS_PER_THREAD; i++) {
+                assertEquals(i, table.get(t + ":" + i), "Element lost during resize.");
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentRemoves() throws InterruptedException {
+        for (int i = 0; i < THREADS * KEYS_PER_THREAD; i++) {
+            table.put("key" + i, i);
+        }
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int id = t;
+            threads.add(new Thread(() -> {
+                for (int i = id; i < THREADS * KEYS_PER_THREAD; i += THREADS) {
+                    if (i % 2 == 0) {
+                        table.remove("key" + i);
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(THREADS * KEYS_PER_THREAD / 2, table.size());
+        assertFalse(table.check("key0"));
+        assertTrue(table.check("key1"));
+    }
+
+    @Test
+    void testWeaklyConsistentIterator() {
+        for (int i = 0; i < 100; i++) {
+            table.put("key" + i, i);
+        }
+        Set<String> keysFound = new HashSet<>();
+        for (Entry<String, Integer> entry : table) {
+            keysFound.add(entry.getKey());
+            table.put("new" + entry.getValue(), entry.getValue());
+        }
+        for (int i = 0; i < 100; i++) {
+            assertTrue(keysFound.contains("key" + i), "Existing keys must be visited.");
+        }
+        assertEquals(200, table.size());
+
+        Iterator<Entry<String, Integer>> it = new ConcurrentHashTable<String, Integer>()
+                .iterator();
+        assertFalse(it.hasNext());
+        assertThrows(NoSuchElementException.class, it::next);
+    }
+}
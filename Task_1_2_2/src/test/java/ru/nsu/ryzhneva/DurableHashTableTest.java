@@ -0,0 +1,112 @@
+package ru.nsu.ryzhneva;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.nsu.ryzhneva.hashtable.Codecs;
+import ru.nsu.ryzhneva.hashtable.DurableHashTable;
+import ru.nsu.ryzhneva.hashtable.HashTable;
+
+/**
+ * Тесты для класса DurableHashTable.
+ */
+class DurableHashTableTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReplayLog() throws IOException {
+        HashTable<Integer, String> expected = new HashTable<>();
+        try (DurableHashTable<Integer, String> table =
+                     DurableHashTable.open(tempDir, Codecs.ints(), Codecs.strings(16))) {
+            for (int i = 0; i < 3000; i++) {
+                table.put(i, "v" + i);
+                expected.put(i, "v" + i);
+            }
+            for (int i = 0; i < 3000; i += 2) {
+                assertEquals("v" + i, table.remove(i));
+                expected.remove(i);
+            }
+            assertNull(table.update(-1, "missing"), "update() must not add keys");
+            assertEquals("v1", table.update(1, "one"));
+            expected.update(1, "one");
+            table.put(null, null);
+            expected.put(null, null);
+            assertNull(table.remove(100_000));
+        }
+
+        try (DurableHashTable<Integer, String> table =
+                     DurableHashTable.open(tempDir, Codecs.ints(), Codecs.strings(16))) {
+            assertEquals(expected, table);
+            assertTrue(table.check(null));
+        }
+    }
+
+    @Test
+    void testCheckpoint() throws IOException {
+        try (DurableHashTable<Long, Long> table =
+                     DurableHashTable.open(tempDir, Codecs.longs(), Codecs.longs(), true)) {
+            for (long i = 0; i < 1000; i++) {
+                table.put(i, i);
+            }
+            assertTrue(table.logSize() > 0);
+            table.checkpoint();
+            assertEquals(0, table.logSize(), "A checkpoint must clear the log.");
+            table.put(5000L, 5000L);
+            table.remove(0L);
+        }
+
+        try (DurableHashTable<Long, Long> table =
+                     DurableHashTable.open(tempDir, Codecs.longs(), Codecs.longs())) {
+            assertEquals(1000, table.size());
+            assertEquals(5000L, table.get(5000L));
+            assertFalse(table.check(0L));
+            assertEquals(999L, table.get(999L));
+        }
+    }
+
+    @Test
+    void testTornTailIsDropped() throws IOException {
+        try (DurableHashTable<Integer, Integer> table =
+                     DurableHashTable.open(tempDir, Codecs.ints(), Codecs.ints())) {
+            table.put(1, 1);
+            table.put(2, 2);
+        }
+        Path log = tempDir.resolve("wal.log");
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        try (DurableHashTable<Integer, Integer> table =
+                     DurableHashTable.open(tempDir, Codecs.ints(), Codecs.ints())) {
+            assertEquals(1, table.size(), "The torn record must be dropped.");
+            assertEquals(1, table.get(1));
+            table.put(3, 3);
+        }
+        try (DurableHashTable<Integer, Integer> table =
+                     DurableHashTable.open(tempDir, Codecs.ints(), Codecs.ints())) {
+            assertEquals(2, table.size(), "New records follow the truncated tail.");
+            assertEquals(3, table.get(3));
+        }
+    }
+
+    @Test
+    void testClosed() throws IOException {
+        DurableHashTable<Integer, Integer> table =
+                DurableHashTable.open(tempDir, Codecs.ints(), Codecs.ints());
+        table.close();
+        table.close();
+        assertThrows(IllegalStateException.class, () -> table.put(1, 1));
+        assertThrows(IllegalStateException.class, () -> table.get(1));
+    }
+}
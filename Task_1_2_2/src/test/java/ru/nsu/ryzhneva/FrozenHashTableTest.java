@@ -0,0 +1,98 @@
+package ru.nsu.ryzhneva;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import ru.nsu.ryzhneva.hashtable.Entry;
+import ru.nsu.ryzhneva.hashtable.FrozenHashTable;
+import ru.nsu.ryzhneva.hashtable.HashStrategy;
+import ru.nsu.ryzhneva.hashtable.HashTable;
+
+/**
+ * Тесты для класса FrozenHashTable.
+ */
+class FrozenHashTableTest {
+
+    @Test
+    void testFreeze() {
+        HashTable<String, Integer> table = new HashTable<>();
+        for (int i = 0; i < 50_000; i++) {
+            table.put("key" + i, i);
+        }
+        table.put(null, -1);
+        table.put("nothing", null);
+        FrozenHashTable<String, Integer> frozen = table.freeze();
+
+        assertEquals(table, frozen);
+        assertEquals(frozen, table);
+        assertEquals(table.hashCode(), frozen.hashCode());
+        for (int i = 0; i < 50_000; i++) {
+            assertEquals(i, frozen.get("key" + i));
+        }
+        assertEquals(-1, frozen.get(null));
+        assertTrue(frozen.check("nothing"));
+        assertNull(frozen.get("nothing"));
+        for (int i = 50_000; i < 60_000; i++) {
+            assertFalse(frozen.check("key" + i));
+        }
+
+        table.put("later", 1);
+        assertFalse(frozen.check("later"), "The copy must not see later changes.");
+    }
+
+    @Test
+    void testDuplicateHashes() {
+        HashTable<String, Integer> table = HashTable.<String, Integer>builder()
+                .hashStrategy(key -> key.length())
+                .build();
+        for (int i = 0; i < 2000; i++) {
+            table.put("k" + i, i);
+        }
+        FrozenHashTable<String, Integer> frozen = table.freeze();
+        assertEquals(table, frozen);
+        assertNull(frozen.get("k2000"));
+        assertNull(frozen.get("a much longer key"));
+
+        Set<String> seen = new HashSet<>();
+        for (Entry<String, Integer> entry : frozen) {
+            assertTrue(seen.add(entry.getKey()));
+        }
+        assertEquals(2000, seen.size());
+    }
+
+    @Test
+    void testEmptyAndSmall() {
+        FrozenHashTable<Integer, Integer> empty = new HashTable<Integer, Integer>().freeze();
+        assertEquals(0, empty.size());
+        assertNull(empty.get(1));
+        assertFalse(empty.iterator().hasNext());
+        assertEquals("{}", empty.toString());
+
+        HashTable<Integer, Integer> one = HashTable.<Integer, Integer>builder()
+                .hashStrategy(HashStrategy.murmur3())
+                .build();
+        one.put(7, 49);
+        FrozenHashTable<Integer, Integer> frozen = one.freeze();
+        assertEquals(49, frozen.get(7));
+        assertFalse(frozen.check(8));
+        assertEquals("{7=49}", frozen.toString());
+    }
+
+    @Test
+    void testMutationsRejected() {
+        HashTable<String, Integer> table = new HashTable<>();
+        table.put("one", 1);
+        FrozenHashTable<String, Integer> frozen = table.freeze();
+        assertThrows(UnsupportedOperationException.class, () -> frozen.put("two", 2));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.update("one", 2));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.remove("one"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.putAll(table));
+        assertEquals(1, frozen.get("one"));
+    }
+}
@@ -0,0 +1,51 @@
+package ru.nsu.ryzhneva;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import ru.nsu.ryzhneva.hashtable.HashStrategy;
+
+/**
+ * Тесты для стратегий хеширования.
+ */
+class HashStrategyTest {
+
+    @Test
+    void testStandardMatchesSpreading() {
+        HashStrategy<String> standard = HashStrategy.standard();
+        int h = "key".hashCode();
+        assertEquals(h ^ (h >>> 16), standard.hash("key"));
+    }
+
+    @Test
+    void testMurmur3SpreadsLowBits() {
+        HashStrategy<Integer> murmur = HashStrategy.murmur3();
+        HashStrategy<Integer> standard = HashStrategy.standard();
+        Set<Integer> murmurBuckets = new HashSet<>();
+        Set<Integer> standardBuckets = new HashSet<>();
+        // Ключи, различающиеся только старшими битами.
+        for (int i = 0; i < 64; i++) {
+            murmurBuckets.add(murmur.hash(i << 26) & 63);
+            standardBuckets.add(standard.hash(i << 26) & 63);
+        }
+        assertEquals(1, standardBuckets.size(), "Standard spreading keeps them in one bucket.");
+        assertTrue(murmurBuckets.size() > 32, "Murmur3 must spread them across buckets.");
+        assertEquals(murmur.hash(12345), HashStrategy.<Integer>murmur3().hash(12345));
+    }
+
+    @Test
+    void testSeeded() {
+        HashStrategy<String> first = HashStrategy.seeded(1);
+        HashStrategy<String> second = HashStrategy.seeded(2);
+        assertEquals(first.hash("key"), HashStrategy.<String>seeded(1).hash("key"),
+                "The same seed gives the same hash.");
+        assertNotEquals(first.hash("key"), second.hash("key"),
+                "Different seeds give different hashes.");
+        assertEquals(HashStrategy.<String>murmur3().hash("key"),
+                HashStrategy.<String>seeded(0).hash("key"));
+    }
+}
@@ -0,0 +1,95 @@
+package ru.nsu.ryzhneva;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.nsu.ryzhneva.hashtable.Codecs;
+import ru.nsu.ryzhneva.hashtable.HashTable;
+import ru.nsu.ryzhneva.hashtable.HashTableSnapshot;
+
+/**
+ * Тесты для класса HashTableSnapshot.
+ */
+class HashTableSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSaveAndLoad() throws IOException {
+        HashTable<String, Long> table = new HashTable<>();
+        for (long i = 0; i < 20_000; i++) {
+            table.put("key" + i, i * i);
+        }
+        table.put(null, 1L);
+        table.put("nothing", null);
+        Path file = tempDir.resolve("table.snapshot");
+        HashTableSnapshot.save(table, file, Codecs.strings(16), Codecs.longs());
+
+        HashTable<String, Long> loaded = HashTableSnapshot.load(file,
+                Codecs.strings(16), Codecs.longs());
+        assertEquals(table, loaded);
+        assertEquals(1L, loaded.get(null));
+        assertTrue(loaded.check("nothing"));
+        assertNull(loaded.get("nothing"));
+        assertTrue(loaded.capacity() >= 32_768, "The table must be pre-sized.");
+        assertFalse(Files.exists(tempDir.resolve("table.snapshot.tmp")));
+    }
+
+    @Test
+    void testEmptyTable() throws IOException {
+        Path file = tempDir.resolve("empty.snapshot");
+        HashTableSnapshot.save(new HashTable<Integer, Integer>(), file,
+                Codecs.ints(), Codecs.ints());
+        assertEquals(0, HashTableSnapshot.load(file, Codecs.ints(), Codecs.ints()).size());
+    }
+
+    @Test
+    void testCorruptedFiles() throws IOException {
+        HashTable<Integer, Integer> table = new HashTable<>();
+        for (int i = 0; i < 100; i++) {
+            table.put(i, i);
+        }
+        Path file = tempDir.resolve("table.snapshot");
+        HashTableSnapshot.save(table, file, Codecs.ints(), Codecs.ints());
+        assertThrows(IllegalArgumentException.class,
+                () -> HashTableSnapshot.load(file, Codecs.longs(), Codecs.ints()));
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[40] ^= 1;
+        Files.write(file, bytes);
+        assertThrows(IOException.class,
+                () -> HashTableSnapshot.load(file, Codecs.ints(), Codecs.ints()));
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class,
+                () -> HashTableSnapshot.load(file, Codecs.ints(), Codecs.ints()));
+
+        Files.writeString(file, "not a snapshot at all, definitely");
+        assertThrows(IOException.class,
+                () -> HashTableSnapshot.load(file, Codecs.ints(), Codecs.ints()));
+    }
+
+    @Test
+    void testTooWideValueKeepsPreviousSnapshot() throws IOException {
+        HashTable<String, Integer> table = new HashTable<>();
+        table.put("short", 1);
+        Path file = tempDir.resolve("table.snapshot");
+        HashTableSnapshot.save(table, file, Codecs.strings(8), Codecs.ints());
+
+        table.put("much longer than eight bytes", 2);
+        assertThrows(IllegalArgumentException.class,
+                () -> HashTableSnapshot.save(table, file, Codecs.strings(8), Codecs.ints()));
+        assertEquals(1, HashTableSnapshot.load(file, Codecs.strings(8), Codecs.ints()).size());
+        assertFalse(Files.exists(tempDir.resolve("table.snapshot.tmp")));
+    }
+}
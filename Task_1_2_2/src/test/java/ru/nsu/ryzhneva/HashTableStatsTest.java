@@ -0,0 +1,100 @@
+package ru.nsu.ryzhneva;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Test;
+import ru.nsu.ryzhneva.hashtable.HashTable;
+import ru.nsu.ryzhneva.hashtable.HashTableStats;
+
+/**
+ * Тесты для статистики хеш-таблицы.
+ */
+class HashTableStatsTest {
+
+    @Test
+    void testRecordsLookupsAndResizes() {
+        HashTable<Integer, Integer> table = HashTable.<Integer, Integer>builder()
+                .recordStats(true)
+                .build();
+        for (int i = 0; i < 1000; i++) {
+            table.put(i, i);
+        }
+        for (int i = 0; i < 2000; i++) {
+            table.get(i);
+        }
+        HashTableStats stats = table.getStats();
+        assertEquals(1000, stats.getSize());
+        assertEquals(2000, stats.getGetCount());
+        assertEquals(1000, stats.getHitCount());
+        assertEquals(0.5, stats.getHitRatio(), 1e-9);
+        assertTrue(stats.getLookupCount() >= 2000);
+        assertTrue(stats.getMaxProbeLength() >= 1);
+        assertTrue(stats.getAverageProbeLength() > 0);
+        assertTrue(stats.getResizeCount() > 0);
+        assertTrue(stats.getMaxResizePauseNanos() <= stats.getTotalResizeNanos());
+
+        long[] histogram = stats.getOccupancyHistogram();
+        assertEquals(stats.getCapacity(), Arrays.stream(histogram).sum());
+        long nodes = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            nodes += i * histogram[i];
+        }
+        assertEquals(1000, nodes);
+    }
+
+    @Test
+    void testCollisionsShowInProbeLength() {
+        HashTable<Integer, Integer> table = HashTable.<Integer, Integer>builder()
+                .hashStrategy(key -> key & 1)
+                .recordStats(true)
+                .build();
+        for (int i = 0; i < 5; i++) {
+            table.put(2 * i, i);
+        }
+        table.get(10);
+        HashTableStats stats = table.getStats();
+        assertEquals(5, stats.getMaxProbeLength());
+        assertEquals(1, stats.getOccupancyHistogram()[5]);
+    }
+
+    @Test
+    void testDisabledStatsKeepCountersAtZero() {
+        HashTable<String, Integer> table = new HashTable<>();
+        for (int i = 0; i < 100; i++) {
+            table.put("key" + i, i);
+            table.get("key" + i);
+        }
+        HashTableStats stats = table.getStats();
+        assertEquals(100, stats.getSize());
+        assertEquals(0, stats.getLookupCount());
+        assertEquals(0, stats.getGetCount());
+        assertEquals(0, stats.getResizeCount());
+        assertEquals(1.0, stats.getHitRatio(), 1e-9);
+        assertEquals(stats.getCapacity(), Arrays.stream(stats.getOccupancyHistogram()).sum());
+    }
+
+    @Test
+    void testRegisterStatsMBean() throws Exception {
+        HashTable<Integer, Integer> table = HashTable.<Integer, Integer>builder()
+                .recordStats(true)
+                .build();
+        table.put(1, 1);
+        table.get(1);
+        ObjectName name = table.registerStatsMBean(
+                "ru.nsu.ryzhneva:type=HashTable,name=HashTableStatsTest");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertEquals(1, server.getAttribute(name, "Size"));
+            assertEquals(1.0, (Double) server.getAttribute(name, "HitRatio"), 1e-9);
+            long[] histogram = (long[]) server.getAttribute(name, "OccupancyHistogram");
+            assertEquals(table.capacity(), Arrays.stream(histogram).sum());
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
@@ -3,20 +3,31 @@ package ru.nsu.ryzhneva;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import ru.nsu.ryzhneva.hashtable.Entry;
+import ru.nsu.ryzhneva.hashtable.HashStrategy;
 import ru.nsu.ryzhneva.hashtable.HashTable;
+import ru.nsu.ryzhneva.hashtable.OpenAddressingHashTable;
 
 /**
  * Тесты для класса HashTable.
@@ -124,6 +135,239 @@ class HashTableTest {
         }
     }
 
+    @Test
+    void testIncrementalResize() {
+        HashTable<String, Integer> incremental = new HashTable<>(true);
+        boolean sawMigration = false;
+        for (int i = 0; i < 1000; i++) {
+            incremental.put("key" + i, i);
+            sawMigration |= incremental.isMigrating();
+            for (int j = 0; j <= i; j += 97) {
+                assertEquals(j, incremental.get("key" + j), "Element " + j + " lost.");
+            }
+        }
+        assertTrue(sawMigration, "Resize must be spread over several puts.");
+        assertEquals(1000, incremental.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, incremental.get("key" + i), "Element " + i + " lost after resize.");
+        }
+    }
+
+    @Test
+    void testIncrementalResizeRemoveAndIterate() {
+        HashTable<Integer, Integer> incremental = new HashTable<>(true);
+        int count = 0;
+        while (!incremental.isMigrating()) {
+            incremental.put(count, count);
+            count++;
+        }
+        assertEquals(0, incremental.remove(0), "Remove must find keys in the old table.");
+        assertNull(incremental.update(0, 1));
+        assertEquals(count - 1, incremental.size());
+
+        Set<Integer> keysFound = new HashSet<>();
+        int iterated = 0;
+        for (Entry<Integer, Integer> entry : incremental) {
+            keysFound.add(entry.getKey());
+            iterated++;
+        }
+        assertEquals(count - 1, iterated, "Each entry must be visited exactly once.");
+        assertEquals(count - 1, keysFound.size());
+        assertFalse(keysFound.contains(0));
+        assertEquals(new HashTable<>(), new HashTable<>(true));
+    }
+
+    @Test
+    void testBulkLoadAndGetAll() {
+        String[] keys = new String[1000];
+        Integer[] values = new Integer[1000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "key" + i;
+            values[i] = i;
+        }
+        table.bulkLoad(keys, values);
+        assertEquals(1000, table.size());
+
+        String[] lookup = {"key999", "missing", "key0", "key500", "key0"};
+        assertEquals(Arrays.asList(999, null, 0, 500, 0), table.getAll(lookup),
+                "getAll() must keep the order of the keys.");
+        assertThrows(IllegalArgumentException.class,
+                () -> table.bulkLoad(new String[2], new Integer[1]));
+    }
+
+    @Test
+    void testSpliteratorCoversMigration() {
+        HashTable<Integer, Integer> incremental = new HashTable<>(true);
+        // Расширение 8192 -> 16384 начинается на 6145-й паре
+        // и к 6200-й перенесло лишь часть ячеек: обе таблицы существуют.
+        for (int i = 0; i < 6200; i++) {
+            incremental.put(i, i);
+        }
+        Set<Integer> keys = incremental.parallelStream()
+                .map(Entry::getKey)
+                .collect(Collectors.toSet());
+        assertEquals(6200, keys.size());
+        assertEquals(6200, incremental.stream().count());
+
+        Spliterator<Entry<Integer, Integer>> spliterator = incremental.spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+        assertEquals(6200, spliterator.estimateSize());
+        Spliterator<Entry<Integer, Integer>> prefix = spliterator.trySplit();
+        assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+        long[] count = new long[1];
+        prefix.forEachRemaining(e -> count[0]++);
+        while (spliterator.tryAdvance(e -> count[0]++)) {
+            assertTrue(count[0] <= 6200);
+        }
+        assertEquals(6200, count[0]);
+    }
+
+    @Test
+    void testBulkOperations() {
+        HashTable<Integer, Integer> numbers = new HashTable<>();
+        for (int i = 1; i <= 100_000; i++) {
+            numbers.put(i, i);
+        }
+        long expectedSum = 100_000L * 100_001 / 2;
+        for (long threshold : new long[]{1, Long.MAX_VALUE}) {
+            LongAdder sum = new LongAdder();
+            numbers.forEach(threshold, (k, v) -> sum.add(v));
+            assertEquals(expectedSum, sum.sum());
+            assertEquals(expectedSum,
+                    numbers.<Long>reduce(threshold, (k, v) -> (long) v, Long::sum));
+            assertEquals(100_000,
+                    numbers.<Integer>reduce(threshold, (k, v) -> v, Math::max));
+            assertNull(numbers.<Integer>reduce(threshold, (k, v) -> null, Math::max));
+            assertEquals(77_777,
+                    numbers.<Integer>search(threshold, (k, v) -> (v == 77_777) ? k : null));
+            assertNull(numbers.search(threshold, (k, v) -> (v < 0) ? k : null));
+        }
+        assertThrows(ConcurrentModificationException.class,
+                () -> numbers.forEach(Long.MAX_VALUE, (k, v) -> numbers.remove(k)));
+    }
+
+    @Test
+    void testPutAll() {
+        OpenAddressingHashTable<String, Integer> source = new OpenAddressingHashTable<>();
+        for (int i = 0; i < 100; i++) {
+            source.put("key" + i, i);
+        }
+        table.put("key0", -1);
+        table.put("other", 1);
+        table.putAll(source);
+        assertEquals(101, table.size());
+        assertEquals(0, table.get("key0"), "putAll() must overwrite existing keys.");
+
+        HashTable<String, Integer> incremental = new HashTable<>(true);
+        incremental.ensureCapacity(10);
+        incremental.putAll(table);
+        assertEquals(table, incremental);
+        assertEquals(Arrays.asList(1, null), source.getAll(new String[]{"key1", "none"}));
+    }
+
+    @Test
+    void testShrinkOnRemove() {
+        for (int i = 0; i < 10_000; i++) {
+            table.put("key" + i, i);
+        }
+        int peakCapacity = table.capacity();
+        for (int i = 0; i < 9_990; i++) {
+            table.remove("key" + i);
+        }
+        assertTrue(table.capacity() < peakCapacity / 100, "The table must shrink.");
+        for (int i = 9_990; i < 10_000; i++) {
+            assertEquals(i, table.get("key" + i), "Element " + i + " lost after shrink.");
+        }
+
+        int shrunkCapacity = table.capacity();
+        table.put("again", 1);
+        table.remove("again");
+        assertEquals(shrunkCapacity, table.capacity(), "Shrink must have hysteresis.");
+    }
+
+    @Test
+    void testShrinkDisabledAndTrimToSize() {
+        HashTable<Integer, Integer> noShrink = new HashTable<>(true, 0f);
+        for (int i = 0; i < 1000; i++) {
+            noShrink.put(i, i);
+        }
+        for (int i = 0; i < 990; i++) {
+            noShrink.remove(i);
+        }
+        int capacity = noShrink.capacity();
+        assertTrue(capacity >= 1024, "Shrinking is disabled.");
+        noShrink.trimToSize();
+        assertEquals(16, noShrink.capacity());
+        assertEquals(10, noShrink.size());
+        for (int i = 990; i < 1000; i++) {
+            assertEquals(i, noShrink.get(i));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new HashTable<>(false, 0.5f));
+    }
+
+    @Test
+    void testBuilderCapacityAndLoadFactor() {
+        HashTable<Integer, Integer> custom = HashTable.<Integer, Integer>builder()
+                .initialCapacity(100)
+                .loadFactor(2f)
+                .build();
+        assertEquals(128, custom.capacity(), "Capacity is rounded up to a power of two.");
+        for (int i = 0; i < 256; i++) {
+            custom.put(i, i);
+        }
+        assertEquals(128, custom.capacity(), "Load factor 2 allows two entries per bucket.");
+        custom.put(256, 256);
+        assertEquals(256, custom.capacity());
+        for (int i = 0; i <= 256; i++) {
+            custom.remove(i);
+        }
+        assertEquals(128, custom.capacity(), "The table never shrinks below its initial size.");
+
+        HashTable<Integer, Integer> dense = new HashTable<>(1, 0.5f);
+        assertEquals(1, dense.capacity());
+        dense.put(1, 1);
+        dense.put(2, 2);
+        assertEquals(4, dense.capacity());
+
+        assertThrows(IllegalArgumentException.class, () -> new HashTable<>(0, 0.75f));
+        assertThrows(IllegalArgumentException.class, () -> new HashTable<>(16, 0f));
+        assertThrows(IllegalArgumentException.class, () -> new HashTable<>(16, Float.NaN));
+        assertThrows(IllegalArgumentException.class,
+                () -> HashTable.builder().loadFactor(1f).shrinkFactor(0.5f).build());
+    }
+
+    @Test
+    void testBuilderHashStrategy() {
+        HashTable<String, Integer> constant = HashTable.<String, Integer>builder()
+                .hashStrategy(key -> 42)
+                .incrementalResize(true)
+                .build();
+        for (int i = 0; i < 100; i++) {
+            constant.put("key" + i, i);
+        }
+        constant.put(null, -1);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, constant.get("key" + i));
+        }
+        assertEquals(-1, constant.get(null));
+
+        HashTable<String, Integer> murmur = HashTable.<String, Integer>builder()
+                .hashStrategy(HashStrategy.murmur3())
+                .build();
+        HashTable<String, Integer> seeded = HashTable.<String, Integer>builder()
+                .hashStrategy(HashStrategy.randomSeeded())
+                .build();
+        for (int i = 0; i < 1000; i++) {
+            murmur.put("key" + i, i);
+            seeded.put("key" + i, i);
+            table.put("key" + i, i);
+        }
+        assertEquals(table, murmur, "The hash strategy must not affect the content.");
+        assertEquals(table, seeded, "The hash strategy must not affect the content.");
+        assertEquals(table.hashCode(), murmur.hashCode());
+        assertThrows(NullPointerException.class, () -> HashTable.builder().hashStrategy(null));
+    }
+
     @Test
     void testCollisions() {
         // "Aa".hashCode() == 2112
@@ -143,6 +387,116 @@ class HashTableTest {
         assertEquals(200, table.get(key2), "The key2 value must remain");
     }
 
+    /**
+     * Ключ с одинаковым хеш-кодом для всех экземпляров.
+     */
+    private record CollidingKey(int id) {
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+
+    /**
+     * Сравнимый ключ с одинаковым хеш-кодом для всех экземпляров.
+     */
+    private record ComparableCollidingKey(int id) implements Comparable<ComparableCollidingKey> {
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+
+        @Override
+        public int compareTo(ComparableCollidingKey o) {
+            return Integer.compare(id, o.id);
+        }
+    }
+
+    @Test
+    void testTreeifiedBucketComparableKeys() {
+        HashTable<ComparableCollidingKey, Integer> colliding = new HashTable<>();
+        for (int i = 0; i < 500; i++) {
+            colliding.put(new ComparableCollidingKey(i), i);
+        }
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, colliding.get(new ComparableCollidingKey(i)));
+        }
+        assertNull(colliding.get(new ComparableCollidingKey(500)));
+        for (int i = 0; i < 495; i++) {
+            assertEquals(i, colliding.remove(new ComparableCollidingKey(i)));
+        }
+        assertEquals(5, colliding.size(), "The tree must shrink back to a list.");
+        int iterated = 0;
+        for (Entry<ComparableCollidingKey, Integer> entry : colliding) {
+            assertTrue(entry.getKey().id() >= 495);
+            iterated++;
+        }
+        assertEquals(5, iterated);
+    }
+
+    @Test
+    void testTreeifiedBucketNonComparableKeys() {
+        HashTable<Object, Integer> colliding = new HashTable<>(true);
+        for (int i = 0; i < 300; i++) {
+            colliding.put(new CollidingKey(i), i);
+            colliding.put("key" + i, i);
+        }
+        colliding.put(null, -1);
+        for (int i = 0; i < 300; i++) {
+            assertEquals(i, colliding.get(new CollidingKey(i)));
+            assertEquals(i, colliding.update(new CollidingKey(i), i + 1));
+        }
+        for (int i = 0; i < 300; i += 2) {
+            assertEquals(i + 1, colliding.remove(new CollidingKey(i)));
+            assertFalse(colliding.check(new CollidingKey(i)));
+        }
+        assertEquals(-1, colliding.get(null));
+        assertEquals(451, colliding.size());
+        int iterated = 0;
+        for (Entry<Object, Integer> ignored : colliding) {
+            iterated++;
+        }
+        assertEquals(451, iterated, "Each entry must be visited exactly once.");
+    }
+
+    @Test
+    void testTreeifiedBucketMixedClassKeys() {
+        List<Object> keys = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            StringBuilder key = new StringBuilder();
+            for (int bit = 0; bit < 4; bit++) {
+                key.append(((i >> bit) & 1) == 0 ? "Aa" : "BB");
+            }
+            keys.add(key.toString());
+        }
+        int hash = keys.get(0).hashCode();
+        keys.add(hash);
+        keys.add(hash & 0xFFFFFFFFL);
+        for (Object key : keys) {
+            assertEquals(hash, key.hashCode());
+        }
+
+        Random random = new Random(42);
+        for (int run = 0; run < 2000; run++) {
+            HashTable<Object, Integer> colliding = new HashTable<>(128, 0.75f);
+            Collections.shuffle(keys, random);
+            for (int i = 0; i < keys.size(); i++) {
+                colliding.put(keys.get(i), i);
+            }
+            Collections.shuffle(keys, random);
+            for (int i = 0; i < keys.size(); i++) {
+                Object key = keys.get(i);
+                assertTrue(colliding.check(key), "Key must be found: " + key);
+                assertNotNull(colliding.remove(key));
+                assertFalse(colliding.check(key));
+                assertEquals(keys.size() - i - 1, colliding.size());
+                for (int j = i + 1; j < keys.size(); j++) {
+                    assertTrue(colliding.check(keys.get(j)));
+                }
+            }
+        }
+    }
+
     @Test
     void testEmptyIterator() {
         Iterator<Entry<String, Integer>> it = table.iterator();
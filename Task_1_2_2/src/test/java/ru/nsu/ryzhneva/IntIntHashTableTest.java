@@ -0,0 +1,108 @@
+package ru.nsu.ryzhneva;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import ru.nsu.ryzhneva.hashtable.IntIntHashTable;
+
+/**
+ * Тесты для класса IntIntHashTable.
+ */
+class IntIntHashTableTest {
+
+    @Test
+    void testPutGetUpdateRemove() {
+        IntIntHashTable table = new IntIntHashTable(0, 0.75f, -1);
+        assertEquals(-1, table.put(1, 10), "put() returns noEntryValue for new keys");
+        assertEquals(10, table.put(1, 20));
+        assertEquals(20, table.get(1));
+        assertEquals(-1, table.get(2));
+        assertEquals(20, table.update(1, 30));
+        assertEquals(-1, table.update(2, 5), "update() must not add keys");
+        assertFalse(table.check(2));
+        assertEquals(30, table.remove(1));
+        assertEquals(-1, table.remove(1));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void testZeroKey() {
+        IntIntHashTable table = new IntIntHashTable();
+        assertFalse(table.check(0));
+        assertEquals(0, table.put(0, 7));
+        assertTrue(table.check(0));
+        assertEquals(7, table.get(0));
+        assertEquals(7, table.update(0, 8));
+        assertEquals(1, table.size());
+        assertEquals("{0=8}", table.toString());
+        assertEquals(8, table.remove(0));
+        assertFalse(table.check(0));
+    }
+
+    @Test
+    void testRandomOperationsAgainstHashMap() {
+        IntIntHashTable table = new IntIntHashTable();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(5000) - 2500;
+            int value = random.nextInt();
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.getOrDefault(key, 0), table.remove(key));
+                expected.remove(key);
+            } else {
+                assertEquals(expected.getOrDefault(key, 0), table.put(key, value));
+                expected.put(key, value);
+            }
+        }
+        assertEquals(expected.size(), table.size());
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), table.get(entry.getKey()));
+        }
+
+        Map<Integer, Integer> iterated = new HashMap<>();
+        IntIntHashTable.Cursor cursor = table.cursor();
+        while (cursor.advance()) {
+            iterated.put(cursor.key(), cursor.value());
+        }
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    void testCursorErrors() {
+        IntIntHashTable table = new IntIntHashTable();
+        IntIntHashTable.Cursor cursor = table.cursor();
+        assertThrows(NoSuchElementException.class, cursor::key);
+        assertFalse(cursor.advance());
+
+        table.put(1, 1);
+        IntIntHashTable.Cursor modified = table.cursor();
+        table.put(2, 2);
+        assertThrows(ConcurrentModificationException.class, modified::advance);
+    }
+
+    @Test
+    void testEqualsAndValidation() {
+        IntIntHashTable table1 = new IntIntHashTable();
+        IntIntHashTable table2 = new IntIntHashTable(100, 0.5f, 0);
+        table1.put(1, 1);
+        table1.put(0, 2);
+        table2.put(0, 2);
+        table2.put(1, 1);
+        assertEquals(table1, table2);
+        assertEquals(table1.hashCode(), table2.hashCode());
+        table2.put(3, 3);
+        assertNotEquals(table1, table2);
+        assertThrows(IllegalArgumentException.class, () -> new IntIntHashTable(10, 1f, 0));
+        assertThrows(IllegalArgumentException.class, () -> new IntIntHashTable(-1, 0.5f, 0));
+    }
+}
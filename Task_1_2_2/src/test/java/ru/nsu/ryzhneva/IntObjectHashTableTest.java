@@ -0,0 +1,55 @@
+package ru.nsu.ryzhneva;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import ru.nsu.ryzhneva.hashtable.IntObjectHashTable;
+
+/**
+ * Тесты для класса IntObjectHashTable.
+ */
+class IntObjectHashTableTest {
+
+    @Test
+    void testPutGetUpdateRemove() {
+        IntObjectHashTable<String> table = new IntObjectHashTable<>();
+        assertNull(table.put(1, "one"));
+        assertEquals("one", table.put(1, "uno"));
+        assertEquals("uno", table.update(1, "eins"));
+        assertNull(table.update(2, "two"), "update() must not add keys");
+        assertNull(table.put(0, null));
+        assertTrue(table.check(0), "null values are allowed");
+        assertNull(table.get(0));
+        assertEquals(2, table.size());
+        assertEquals("eins", table.remove(1));
+        assertFalse(table.check(1));
+        assertEquals("{0=null}", table.toString());
+    }
+
+    @Test
+    void testRandomOperationsAgainstHashMap() {
+        IntObjectHashTable<Integer> table = new IntObjectHashTable<>(10, 0.9f);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(3000);
+            if (random.nextBoolean()) {
+                assertEquals(expected.remove(key), table.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), table.put(key, i));
+            }
+        }
+        Map<Integer, Integer> iterated = new HashMap<>();
+        IntObjectHashTable<Integer>.Cursor cursor = table.cursor();
+        while (cursor.advance()) {
+            iterated.put(cursor.key(), cursor.value());
+        }
+        assertEquals(expected, iterated);
+    }
+}
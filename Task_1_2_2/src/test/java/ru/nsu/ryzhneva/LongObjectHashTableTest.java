@@ -0,0 +1,61 @@
+package ru.nsu.ryzhneva;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import ru.nsu.ryzhneva.hashtable.LongObjectHashTable;
+
+/**
+ * Тесты для класса LongObjectHashTable.
+ */
+class LongObjectHashTableTest {
+
+    @Test
+    void testPutGetUpdateRemove() {
+        LongObjectHashTable<String> table = new LongObjectHashTable<>();
+        long big = 1L << 40;
+        assertNull(table.put(big, "big"));
+        assertNull(table.put(big + 1, "next"));
+        assertNull(table.put(0L, "zero"));
+        assertEquals("big", table.get(big));
+        assertEquals("zero", table.update(0L, "nil"));
+        assertEquals("next", table.remove(big + 1));
+        assertFalse(table.check(big + 1));
+        assertEquals(2, table.size());
+
+        LongObjectHashTable<String> other = new LongObjectHashTable<>();
+        other.put(0L, "nil");
+        other.put(big, "big");
+        assertEquals(table, other);
+        other.update(big, "BIG");
+        assertNotEquals(table, other);
+    }
+
+    @Test
+    void testRandomOperationsAgainstHashMap() {
+        LongObjectHashTable<Long> table = new LongObjectHashTable<>();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(3000) * 0x1_0000_0001L;
+            if (random.nextBoolean()) {
+                assertEquals(expected.remove(key), table.remove(key));
+            } else {
+                assertEquals(expected.put(key, (long) i), table.put(key, (long) i));
+            }
+        }
+        assertEquals(expected.size(), table.size());
+        Map<Long, Long> iterated = new HashMap<>();
+        LongObjectHashTable<Long>.Cursor cursor = table.cursor();
+        while (cursor.advance()) {
+            iterated.put(cursor.key(), cursor.value());
+        }
+        assertEquals(expected, iterated);
+    }
+}
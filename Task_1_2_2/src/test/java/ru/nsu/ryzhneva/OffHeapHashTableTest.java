@@ -0,0 +1,116 @@
+package ru.nsu.ryzhneva;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.nsu.ryzhneva.hashtable.Codecs;
+import ru.nsu.ryzhneva.hashtable.Entry;
+import ru.nsu.ryzhneva.hashtable.HashTable;
+import ru.nsu.ryzhneva.hashtable.OffHeapHashTable;
+
+/**
+ * Тесты для класса OffHeapHashTable.
+ */
+class OffHeapHashTableTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testInMemoryOperations() throws IOException {
+        try (OffHeapHashTable<String, Integer> table =
+                     OffHeapHashTable.create(Codecs.strings(16), Codecs.ints())) {
+            assertNull(table.put("one", 1));
+            assertEquals(1, table.put("one", 10));
+            assertEquals(10, table.update("one", 100));
+            assertNull(table.update("two", 2), "update() must not add keys");
+            table.put("nothing", null);
+            assertTrue(table.check("nothing"));
+            assertNull(table.get("nothing"));
+            assertEquals(100, table.remove("one"));
+            assertFalse(table.check("one"));
+            assertEquals(1, table.size());
+            assertThrows(NullPointerException.class, () -> table.put(null, 1));
+            assertThrows(IllegalArgumentException.class,
+                    () -> table.put("a string longer than sixteen bytes", 1));
+        }
+    }
+
+    @Test
+    void testGrowAndIterate() throws IOException {
+        try (OffHeapHashTable<Long, Long> table =
+                     OffHeapHashTable.create(Codecs.longs(), Codecs.longs())) {
+            HashTable<Long, Long> expected = new HashTable<>();
+            for (long i = 0; i < 5000; i++) {
+                table.put(i, i * i);
+                expected.put(i, i * i);
+            }
+            for (long i = 0; i < 5000; i += 3) {
+                table.remove(i);
+                expected.remove(i);
+            }
+            assertEquals(expected, table);
+            Set<Long> keys = new HashSet<>();
+            for (Entry<Long, Long> entry : table) {
+                keys.add(entry.getKey());
+            }
+            assertEquals(expected.size(), keys.size());
+        }
+    }
+
+    @Test
+    void testPersistentReopen() throws IOException {
+        Path file = tempDir.resolve("table.bin");
+        try (OffHeapHashTable<String, Long> table =
+                     OffHeapHashTable.open(file, Codecs.strings(32), Codecs.longs())) {
+            for (long i = 0; i < 1000; i++) {
+                table.put("key" + i, i);
+            }
+            table.remove("key0");
+        }
+        assertFalse(Files.exists(tempDir.resolve("table.bin.resize")));
+
+        try (OffHeapHashTable<String, Long> table =
+                     OffHeapHashTable.open(file, Codecs.strings(32), Codecs.longs())) {
+            assertEquals(999, table.size());
+            assertFalse(table.check("key0"));
+            for (long i = 1; i < 1000; i++) {
+                assertEquals(i, table.get("key" + i), "Element " + i + " lost after reopen.");
+            }
+            table.put("extra", -1L);
+            table.flush();
+        }
+        try (OffHeapHashTable<String, Long> table =
+                     OffHeapHashTable.open(file, Codecs.strings(32), Codecs.longs())) {
+            assertEquals(-1L, table.get("extra"));
+        }
+    }
+
+    @Test
+    void testInvalidFiles() throws IOException {
+        Path file = tempDir.resolve("table.bin");
+        OffHeapHashTable.open(file, Codecs.ints(), Codecs.ints()).close();
+        assertThrows(IllegalArgumentException.class,
+                () -> OffHeapHashTable.open(file, Codecs.longs(), Codecs.ints()));
+
+        Path garbage = tempDir.resolve("garbage.bin");
+        Files.write(garbage, new byte[128]);
+        assertThrows(IOException.class,
+                () -> OffHeapHashTable.open(garbage, Codecs.ints(), Codecs.ints()));
+
+        OffHeapHashTable<Integer, Integer> closed = OffHeapHashTable.create(
+                Codecs.ints(), Codecs.ints());
+        closed.close();
+        assertThrows(IllegalStateException.class, () -> closed.get(1));
+    }
+}
@@ -0,0 +1,125 @@
+package ru.nsu.ryzhneva;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.nsu.ryzhneva.hashtable.Entry;
+import ru.nsu.ryzhneva.hashtable.HashTable;
+import ru.nsu.ryzhneva.hashtable.OpenAddressingHashTable;
+import ru.nsu.ryzhneva.hashtable.Table;
+
+/**
+ * Тесты для класса OpenAddressingHashTable.
+ */
+class OpenAddressingHashTableTest {
+
+    private Table<String, Integer> table;
+
+    @BeforeEach
+    void setUp() {
+        table = new OpenAddressingHashTable<>();
+    }
+
+    @Test
+    void testPutGetUpdate() {
+        assertNull(table.put("one", 1));
+        assertEquals(1, table.put("one", 10), "put() should return prevValue");
+        assertEquals(10, table.get("one"));
+        assertEquals(10, table.update("one", 100));
+        assertEquals(100, table.get("one"));
+        assertNull(table.update("two", 2), "update() must not add keys");
+        assertFalse(table.check("two"));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void testNullKeyAndValue() {
+        assertNull(table.put(null, 100));
+        assertTrue(table.check(null));
+        assertEquals(100, table.get(null));
+        table.put("key", null);
+        assertTrue(table.check("key"));
+        assertNull(table.get("key"));
+        assertEquals(100, table.remove(null));
+        assertFalse(table.check(null));
+    }
+
+    @Test
+    void testCollisionsAndTombstones() {
+        table.put("Aa", 1);
+        table.put("BB", 2);
+        table.put("C#", 3);
+        assertEquals(1, table.remove("Aa"));
+        assertNull(table.get("Aa"));
+        assertEquals(2, table.get("BB"), "Key after tombstone must be reachable");
+        assertEquals(3, table.get("C#"), "Key after tombstone must be reachable");
+        table.put("Aa", 10);
+        assertEquals(10, table.get("Aa"));
+        assertEquals(3, table.size());
+    }
+
+    @Test
+    void testManyPutsAndRemoves() {
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 1000; i++) {
+                table.put("key" + i, i);
+            }
+            for (int i = 0; i < 1000; i += 2) {
+                assertEquals(i, table.remove("key" + i));
+            }
+            assertEquals(500, table.size());
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(i % 2 == 0 ? null : i, table.get("key" + i));
+            }
+        }
+    }
+
+    @Test
+    void testIterator() {
+        table.put("one", 1);
+        table.put("two", 2);
+        table.put("three", 3);
+        table.remove("two");
+        Set<String> keysFound = new HashSet<>();
+        for (Entry<String, Integer> entry : table) {
+            keysFound.add(entry.getKey());
+        }
+        assertEquals(Set.of("one", "three"), keysFound);
+
+        Iterator<Entry<String, Integer>> it = new OpenAddressingHashTable<String, Integer>()
+                .iterator();
+        assertThrows(NoSuchElementException.class, it::next);
+    }
+
+    @Test
+    void testConcurrentModification() {
+        table.put("one", 1);
+        Iterator<Entry<String, Integer>> it = table.iterator();
+        it.next();
+        table.put("two", 2);
+        assertThrows(ConcurrentModificationException.class, it::hasNext);
+    }
+
+    @Test
+    void testEqualsAcrossImplementations() {
+        HashTable<String, Integer> chained = new HashTable<>();
+        table.put("one", 1);
+        table.put("two", 2);
+        chained.put("two", 2);
+        chained.put("one", 1);
+        assertEquals(chained, table, "Tables with the same content should be equal.");
+        assertEquals(table, chained, "Tables with the same content should be equal.");
+        assertEquals(chained.hashCode(), table.hashCode());
+        assertEquals("{}", new OpenAddressingHashTable<>().toString());
+    }
+}
@@ -0,0 +1,53 @@
+package ru.nsu.ryzhneva;
+
+/**
+ * Общая часть алгоритмов поиска: проверка и хранение подстроки.
+ */
+abstract class AbstractSearch implements SearchAlgorithm {
+
+    protected final String pattern;
+    protected final char[] chars;
+    protected final int length;
+
+    /**
+     * Конструктор с проверкой подстроки.
+     *
+     * @param pattern Искомая подстрока.
+     */
+    AbstractSearch(String pattern) {
+        if (pattern == null || pattern.isEmpty()) {
+            throw new IllegalArgumentException("Pattern cannot be null or empty");
+        }
+        this.pattern = pattern;
+        this.chars = pattern.toCharArray();
+        this.length = chars.length;
+    }
+
+    @Override
+    public String pattern() {
+        return pattern;
+    }
+
+    /**
+     * Сравнивает символы подстроки {@code [from, to)} с текстом.
+     *
+     * @param text   Массив символов.
+     * @param offset Индекс начала окна в тексте.
+     * @param from   Первый сравниваемый символ подстроки.
+     * @param to     Граница сравниваемых символов подстроки.
+     * @return {@code true}, если символы совпадают.
+     */
+    protected boolean regionMatches(char[] text, int offset, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (text[offset + i] != chars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + pattern + "]";
+    }
+}
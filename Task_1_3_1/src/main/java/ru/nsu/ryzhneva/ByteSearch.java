@@ -0,0 +1,116 @@
+package ru.nsu.ryzhneva;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Поиск подстроки в байтах UTF-8 без декодирования текста.
+ * Подстрока кодируется в UTF-8 и ищется алгоритмом Бойера-Мура-Хорспула,
+ * а индекс символа рассчитывается подсчетом единиц UTF-16 в байтах:
+ * байт продолжения (10xxxxxx) не дает символа, ведущий байт
+ * четырехбайтовой последовательности (11110xxx) дает суррогатную пару.
+ *
+ * <p>Результат совпадает с поиском по декодированному тексту,
+ * если файл — корректный UTF-8.
+ */
+final class ByteSearch {
+
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private final byte[] pattern;
+    private final int[] shift = new int[256];
+
+    /**
+     * Конструктор с расчетом таблицы сдвигов.
+     *
+     * @param substring Искомая непустая подстрока.
+     */
+    ByteSearch(String substring) {
+        this.pattern = substring.getBytes(StandardCharsets.UTF_8);
+        int m = pattern.length;
+        Arrays.fill(shift, m);
+        for (int i = 0; i < m - 1; i++) {
+            shift[pattern[i] & 0xFF] = m - 1 - i;
+        }
+    }
+
+    /**
+     * Возвращает длину подстроки в байтах.
+     *
+     * @return Количество байт UTF-8.
+     */
+    int length() {
+        return pattern.length;
+    }
+
+    /**
+     * Ищет вхождения, начинающиеся в первых {@code limit} байтах буфера.
+     * Буфер может содержать еще до {@code length() - 1} байт продолжения,
+     * чтобы найти вхождения, пересекающие границу окна.
+     *
+     * @param buffer   Байты окна, начиная с позиции 0.
+     * @param limit    Граница начала вхождений.
+     * @param charBase Индекс символа, с которого начинается окно.
+     * @param consumer Получатель индексов найденных вхождений.
+     * @return Количество единиц UTF-16 в первых {@code limit} байтах.
+     */
+    long scan(ByteBuffer buffer, int limit, long charBase, LongConsumer consumer) {
+        int m = pattern.length;
+        int end = buffer.limit() - m;
+        byte last = pattern[m - 1];
+        long chars = 0;
+        int counted = 0;
+        int i = 0;
+        while (i < limit && i <= end) {
+            byte b = buffer.get(i + m - 1);
+            if (b == last && matchesAt(buffer, i)) {
+                chars += countChars(buffer, counted, i);
+                counted = i;
+                consumer.accept(charBase + chars);
+            }
+            i += shift[b & 0xFF];
+        }
+        return chars + countChars(buffer, counted, limit);
+    }
+
+    private boolean matchesAt(ByteBuffer buffer, int offset) {
+        for (int j = pattern.length - 2; j >= 0; j--) {
+            if (buffer.get(offset + j) != pattern[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Считает единицы UTF-16 в байтах {@code [from, to)}.
+     * Байты обрабатываются по восемь в одном {@code long}:
+     * старший бит каждого байта маски показывает, подходит ли байт.
+     */
+    static long countChars(ByteBuffer buffer, int from, int to) {
+        long chars = 0;
+        int i = from;
+        for (; i + Long.BYTES <= to; i += Long.BYTES) {
+            long x = buffer.getLong(i);
+            long continuation = x & ~(x << 1) & HIGH_BITS;
+            long fourByteLead = x & (x << 1) & (x << 2) & (x << 3) & ~(x << 4) & HIGH_BITS;
+            chars += Long.BYTES - Long.bitCount(continuation) + Long.bitCount(fourByteLead);
+        }
+        for (; i < to; i++) {
+            chars += utf16Units(buffer.get(i));
+        }
+        return chars;
+    }
+
+    /**
+     * Возвращает количество единиц UTF-16, которое дает байт UTF-8.
+     */
+    static int utf16Units(byte b) {
+        if ((b & 0xC0) == 0x80) {
+            return 0;
+        }
+        return ((b & 0xF8) == 0xF0) ? 2 : 1;
+    }
+}
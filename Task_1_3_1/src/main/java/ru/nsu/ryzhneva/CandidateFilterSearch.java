@@ -0,0 +1,43 @@
+package ru.nsu.ryzhneva;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Фильтр кандидатов по первому и последнему символу подстроки.
+ * Внутренний цикл сравнивает два символа на позицию без ветвлений
+ * по таблицам, и JIT-компилятор разворачивает его. Остальные символы
+ * сравниваются только для прошедших фильтр позиций.
+ */
+final class CandidateFilterSearch extends AbstractSearch {
+
+    /**
+     * Наибольшая длина подстроки, для которой фильтр выбирает {@link SearchAlgorithm#select}.
+     */
+    static final int MAX_SELECTED_LENGTH = 3;
+
+    /**
+     * Конструктор.
+     *
+     * @param pattern Искомая подстрока.
+     */
+    CandidateFilterSearch(String pattern) {
+        super(pattern);
+    }
+
+    @Override
+    public boolean search(char[] text, int from, int to, IntPredicate action) {
+        char first = chars[0];
+        char last = chars[length - 1];
+        int lastOffset = length - 1;
+        int end = to - length;
+        for (int i = from; i <= end; i++) {
+            if (text[i] != first | text[i + lastOffset] != last) {
+                continue;
+            }
+            if (regionMatches(text, i, 1, lastOffset) && !action.test(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,318 @@
+package ru.nsu.ryzhneva;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Поиск подстроки во всех файлах каталога за один запуск.
+ * Файлы распределяются по пулу из фиксированного числа потоков,
+ * каждый поток читает и просматривает свой файл целиком.
+ * Вхождения, прогресс и ошибки передаются {@link Listener} по мере
+ * их появления, без накопления результатов.
+ *
+ * <p>Один экземпляр можно использовать для нескольких поисков;
+ * после работы его нужно закрыть, чтобы остановить потоки.
+ */
+public class DirectorySearch implements AutoCloseable {
+
+    private static final long PROGRESS_STEP = 1 << 20;
+
+    private final FindSubstring finder;
+    private final ExecutorService pool;
+
+    /**
+     * Получатель результатов поиска. Методы вызываются из потоков пула,
+     * для разных файлов — одновременно, для одного файла — по порядку.
+     */
+    public interface Listener {
+
+        /**
+         * Вызывается для каждого вхождения.
+         *
+         * @param file   Файл.
+         * @param offset Индекс начала вхождения в файле.
+         */
+        void onMatch(Path file, long offset);
+
+        /**
+         * Вызывается по мере чтения файла, не реже чем через каждый мегабайт.
+         *
+         * @param file      Файл.
+         * @param bytesRead Количество прочитанных байт.
+         * @param size      Размер файла на момент начала чтения.
+         */
+        default void onProgress(Path file, long bytesRead, long size) {
+        }
+
+        /**
+         * Вызывается, когда файл просмотрен полностью.
+         *
+         * @param file    Файл.
+         * @param matches Количество вхождений в файле.
+         */
+        default void onFileDone(Path file, long matches) {
+        }
+
+        /**
+         * Вызывается, если файл не удалось прочитать. Поиск в остальных
+         * файлах продолжается.
+         *
+         * @param file  Файл.
+         * @param error Ошибка чтения.
+         */
+        default void onError(Path file, IOException error) {
+        }
+    }
+
+    /**
+     * Запущенный поиск.
+     */
+    public static final class Task {
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final AtomicLong matches = new AtomicLong();
+        private final CompletableFuture<Long> completion = new CompletableFuture<>();
+        private final int fileCount;
+
+        private Task(int fileCount) {
+            this.fileCount = fileCount;
+        }
+
+        /**
+         * Отменяет поиск. Файлы, которые еще не начаты, пропускаются,
+         * а чтение начатых прекращается на ближайшем вхождении или блоке.
+         */
+        public void cancel() {
+            cancelled.set(true);
+        }
+
+        /**
+         * Проверяет, отменен ли поиск.
+         *
+         * @return {@code true}, если был вызван {@link #cancel()}.
+         */
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+
+        /**
+         * Проверяет, завершена ли обработка всех файлов.
+         *
+         * @return {@code true}, если поиск завершен или отменен и остановлен.
+         */
+        public boolean isDone() {
+            return completion.isDone();
+        }
+
+        /**
+         * Возвращает количество файлов, выбранных для поиска.
+         *
+         * @return Количество файлов.
+         */
+        public int getFileCount() {
+            return fileCount;
+        }
+
+        /**
+         * Ожидает завершения поиска.
+         *
+         * @return Общее количество найденных вхождений.
+         * @throws InterruptedException если ожидание прервано.
+         */
+        public long await() throws InterruptedException {
+            try {
+                return completion.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Конструктор с пулом по числу процессоров.
+     *
+     * @param finder Поиск искомой подстроки.
+     */
+    public DirectorySearch(FindSubstring finder) {
+        this(finder, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Конструктор с заданным числом потоков.
+     *
+     * @param finder      Поиск искомой подстроки.
+     * @param parallelism Количество одновременно просматриваемых файлов.
+     */
+    public DirectorySearch(FindSubstring finder, int parallelism) {
+        if (finder == null) {
+            throw new IllegalArgumentException("Finder cannot be null");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.finder = finder;
+        this.pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "directory-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Запускает поиск во всех обычных файлах каталога и его подкаталогов.
+     *
+     * @param root     Каталог.
+     * @param listener Получатель результатов.
+     * @return Запущенный поиск.
+     * @throws IOException если каталог не удалось обойти.
+     */
+    public Task search(Path root, Listener listener) throws IOException {
+        return search(root, "**", listener);
+    }
+
+    /**
+     * Запускает поиск в файлах каталога, подходящих под шаблон.
+     * Шаблон в синтаксисе {@code glob} сравнивается с путем относительно
+     * каталога и с именем файла, поэтому {@code "*.log"} выбирает файлы
+     * во всех подкаталогах, а {@code "2024/*.log"} — только в одном.
+     *
+     * @param root     Каталог.
+     * @param glob     Шаблон имени файла.
+     * @param listener Получатель результатов.
+     * @return Запущенный поиск.
+     * @throws IOException если каталог не удалось обойти.
+     */
+    public Task search(Path root, String glob, Listener listener) throws IOException {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        PathMatcher matcher = root.getFileSystem().getPathMatcher("glob:" + glob);
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(root)) {
+            files = paths.filter(Files::isRegularFile)
+                    .filter(path -> matcher.matches(root.relativize(path))
+                            || matcher.matches(path.getFileName()))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        Task task = new Task(files.size());
+        if (files.isEmpty()) {
+            task.completion.complete(0L);
+            return task;
+        }
+        AtomicInteger pending = new AtomicInteger(files.size());
+        for (Path file : files) {
+            pool.execute(() -> {
+                try {
+                    if (!task.isCancelled()) {
+                        searchFile(file, task, listener);
+                    }
+                } catch (RuntimeException e) {
+                    task.completion.completeExceptionally(e);
+                } finally {
+                    if (pending.decrementAndGet() == 0) {
+                        task.completion.complete(task.matches.get());
+                    }
+                }
+            });
+        }
+        return task;
+    }
+
+    private void searchFile(Path file, Task task, Listener listener) {
+        try (ProgressStream in = new ProgressStream(Files.newInputStream(file),
+                file, Files.size(file), task, listener)) {
+            long matches = finder.find(in, offset -> {
+                listener.onMatch(file, offset);
+                return !task.isCancelled();
+            });
+            task.matches.addAndGet(matches);
+            if (!task.isCancelled()) {
+                in.reportProgress();
+                listener.onFileDone(file, matches);
+            }
+        } catch (IOException e) {
+            listener.onError(file, e);
+        }
+    }
+
+    /**
+     * Поток, который сообщает о количестве прочитанных байт.
+     * После отмены поиска поток заканчивается, поэтому чтение файла
+     * прекращается на следующем блоке, даже если вхождений нет.
+     */
+    private static final class ProgressStream extends FilterInputStream {
+        private final Path file;
+        private final long size;
+        private final Task task;
+        private final Listener listener;
+        private long bytesRead = 0;
+        private long reported = 0;
+
+        ProgressStream(InputStream in, Path file, long size, Task task, Listener listener) {
+            super(in);
+            this.file = file;
+            this.size = size;
+            this.task = task;
+            this.listener = listener;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (task.isCancelled()) {
+                return -1;
+            }
+            int b = super.read();
+            if (b != -1) {
+                advance(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (task.isCancelled()) {
+                return -1;
+            }
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                advance(n);
+            }
+            return n;
+        }
+
+        private void advance(int n) {
+            bytesRead += n;
+            if (bytesRead - reported >= PROGRESS_STEP) {
+                reportProgress();
+            }
+        }
+
+        void reportProgress() {
+            reported = bytesRead;
+            listener.onProgress(file, bytesRead, size);
+        }
+    }
+
+    /**
+     * Останавливает потоки пула. Начатые файлы дочитываются.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
@@ -3,62 +3,139 @@ package ru.nsu.ryzhneva;
 import java.io.BufferedReader;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayDeque;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Deque;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.LongPredicate;
 
 /**
  * Класс для поиска вхождений подстроки в файле.
+ * Файл читается блоками, соседние блоки перекрываются на длину подстроки
+ * без одного символа, а каждый блок просматривается выбранным
+ * алгоритмом ({@link SearchAlgorithm}).
+ *
+ * <p>С параметрами {@link SearchOption} символы преобразуются по мере
+ * чтения между декодированием и поиском, так что регистр, нормализация
+ * и подстановочные символы не требуют отдельной копии файла.
  */
 public class FindSubstring {
 
-    private static final long d = 257;
     private static final int DEFAULT_BUFFER_SIZE = 8192;
-    private static final long PRIME_NUMBER = 1_000_000_007;
+    private static final int MAPPED_WINDOW_SIZE = 1 << 26;
+    private static final int PARALLEL_CHUNK_SIZE = 1 << 24;
+    private static final char WILDCARD = '?';
 
-    private final char[] substring;
     private final int substringLen;
-    private final long substringHash;
-    private final long highestPower;
     private final boolean isEmptySubstring;
-    private char[] windowArr;
-    private int windowPos = 0;
+    private final SearchAlgorithm algorithm;
+    private final ByteSearch byteSearch;
+    private final Set<SearchOption> options;
+    private final TextTransform transform;
 
     /**
-     * Конструктор класса с расчетом хэша
-     * искомой подстроки.
+     * Конструктор класса с выбором алгоритма
+     * по искомой подстроке ({@link SearchAlgorithm#select}).
      *
      * @param substring Искомая подстрока.
      */
     public FindSubstring(String substring) {
+        this(substring, null, EnumSet.noneOf(SearchOption.class));
+    }
+
+    /**
+     * Конструктор класса с параметрами сравнения.
+     *
+     * @param substring Искомая подстрока.
+     * @param options   Параметры сравнения подстроки с текстом.
+     */
+    public FindSubstring(String substring, SearchOption... options) {
+        this(substring, null, toSet(options));
+    }
+
+    /**
+     * Конструктор класса с заданным алгоритмом поиска.
+     *
+     * @param substring Искомая подстрока.
+     * @param algorithm Алгоритм, построенный для этой подстроки,
+     *                  или {@code null} для выбора по подстроке.
+     */
+    public FindSubstring(String substring, SearchAlgorithm algorithm) {
+        this(substring, algorithm, EnumSet.noneOf(SearchOption.class));
+    }
+
+    private FindSubstring(String substring, SearchAlgorithm algorithm,
+                          Set<SearchOption> options) {
         if (substring == null) {
             throw new IllegalArgumentException("Substring cannot be null");
         }
-        if (substring.isEmpty()) {
-            this.isEmptySubstring = true;
-            this.substring = new char[0];
+        this.options = Collections.unmodifiableSet(options);
+        boolean ignoreCase = options.contains(SearchOption.IGNORE_CASE);
+        boolean normalize = options.contains(SearchOption.NORMALIZE);
+        this.transform = (ignoreCase || normalize)
+                ? new TextTransform(ignoreCase, normalize) : null;
+        this.isEmptySubstring = substring.isEmpty();
+        if (isEmptySubstring) {
             this.substringLen = 0;
-            this.substringHash = 0;
-            this.highestPower = 0;
-            this.windowArr = new char[0];
+            this.algorithm = null;
+            this.byteSearch = null;
             return;
         }
+        if (algorithm != null && !substring.equals(algorithm.pattern())) {
+            throw new IllegalArgumentException("Algorithm was built for another substring");
+        }
+        String pattern = (transform != null) ? transform.apply(substring) : substring;
+        this.substringLen = pattern.length();
+        if (algorithm != null) {
+            this.algorithm = algorithm;
+        } else if (options.contains(SearchOption.WILDCARD)
+                && pattern.indexOf(WILDCARD) >= 0) {
+            this.algorithm = SearchAlgorithm.wildcard(pattern, WILDCARD);
+        } else {
+            this.algorithm = SearchAlgorithm.select(pattern);
+        }
+        this.byteSearch = options.isEmpty() ? new ByteSearch(substring) : null;
+    }
 
-        this.isEmptySubstring = false;
-        this.substring = substring.toCharArray();
-        this.substringLen = substring.length();
-        this.windowArr = new char[substringLen];
+    private static Set<SearchOption> toSet(SearchOption[] options) {
+        Set<SearchOption> result = EnumSet.noneOf(SearchOption.class);
+        for (SearchOption option : options) {
+            if (option == null) {
+                throw new IllegalArgumentException("Search option cannot be null");
+            }
+            result.add(option);
+        }
+        return result;
+    }
 
-        this.substringHash = calculateHash(this.substring, this.substringLen);
+    /**
+     * Возвращает алгоритм, которым просматриваются блоки файла.
+     *
+     * @return Алгоритм или {@code null} для пустой подстроки.
+     */
+    public SearchAlgorithm getAlgorithm() {
+        return algorithm;
+    }
 
-        long power = 1;
-        for (int i = 0; i < this.substringLen - 1; i++) {
-            power = (power * d) % PRIME_NUMBER;
-        }
-        this.highestPower = power;
+    /**
+     * Возвращает параметры сравнения подстроки с текстом.
+     *
+     * @return Неизменяемое множество параметров.
+     */
+    public Set<SearchOption> getOptions() {
+        return options;
     }
 
     /**
@@ -70,90 +147,297 @@ public class FindSubstring {
      */
     public List<Long> find(String fileName) throws IOException {
         List<Long> indices = new ArrayList<>();
+        find(fileName, indices::add);
+        return indices;
+    }
 
+    /**
+     * Поиск первых вхождений подстроки в указанном файле.
+     * Чтение файла прекращается, как только найдено {@code limit} вхождений.
+     *
+     * @param fileName Имя файла для поиска.
+     * @param limit    Максимальное количество вхождений.
+     * @return Массив индексов начала вхождений длиной не больше {@code limit}.
+     * @throws IOException В случае ошибки чтения файла.
+     */
+    public long[] findFirst(String fileName, int limit) throws IOException {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        LongList indices = new LongList();
+        if (limit > 0) {
+            find(fileName, index -> {
+                indices.add(index);
+                return indices.size() < limit;
+            });
+        }
+        return indices.toArray();
+    }
+
+    /**
+     * Поиск подстроки с передачей каждого вхождения обработчику.
+     * Вхождения не накапливаются, поэтому память не зависит от их количества.
+     * Если обработчик возвращает {@code false}, чтение файла прекращается.
+     *
+     * @param fileName Имя файла для поиска.
+     * @param action   Обработчик индекса начала вхождения.
+     * @return Количество переданных обработчику вхождений.
+     * @throws IOException В случае ошибки чтения файла.
+     */
+    public long find(String fileName, LongPredicate action) throws IOException {
         if (this.isEmptySubstring) {
-            return indices;
+            return 0;
         }
 
-        char[] buffer = new char[DEFAULT_BUFFER_SIZE];
-        long currentHash = 0;
-        long globalIndex = 0;
-        windowPos = 0;
-
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(
-                        new FileInputStream(fileName), StandardCharsets.UTF_8))) {
-            int charRead;
-            while ((charRead = reader.read(buffer)) != -1 ) {
-                for (int i = 0; i < charRead; i++) {
-                    char newSym = buffer[i];
-
-                    if (globalIndex >= substringLen) {
-                        char oldSym = windowArr[windowPos];
-                        currentHash = rollHash(currentHash, oldSym, newSym);
-                    } else {
-                        currentHash = (d * currentHash + newSym) % PRIME_NUMBER;
-                    }
+        try (InputStream in = new FileInputStream(fileName)) {
+            return find(in, action);
+        }
+    }
 
-                    windowArr[windowPos] = newSym;
-                    windowPos++;
-                    if (windowPos == substringLen) {
-                        windowPos = 0;
-                    }
+    /**
+     * Поиск подстроки в потоке байтов UTF-8 с передачей каждого вхождения
+     * обработчику. Поток читается до конца или до остановки обработчиком
+     * и не закрывается.
+     *
+     * @param in     Поток для поиска.
+     * @param action Обработчик индекса начала вхождения.
+     * @return Количество переданных обработчику вхождений.
+     * @throws IOException В случае ошибки чтения потока.
+     */
+    public long find(InputStream in, LongPredicate action) throws IOException {
+        if (this.isEmptySubstring) {
+            return 0;
+        }
+        if (transform != null) {
+            return findTransformed(in, action);
+        }
 
-                    globalIndex++;
-                    if (globalIndex >= substringLen && currentHash == substringHash) {
-                        if (checkEqualityPrimitive(windowArr, windowPos, substring)) {
-                            indices.add(globalIndex - substringLen);
-                        }
-                    }
-                }
+        long[] found = {0};
+        char[] buffer = new char[Math.max(DEFAULT_BUFFER_SIZE, 2 * substringLen)];
+        int kept = 0;
+        long base = 0;
+
+        Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        int charRead;
+        while ((charRead = reader.read(buffer, kept, buffer.length - kept)) != -1) {
+            int filled = kept + charRead;
+            long blockStart = base;
+            boolean proceed = algorithm.search(buffer, 0, filled, index -> {
+                found[0]++;
+                return action.test(blockStart + index);
+            });
+            if (!proceed) {
+                return found[0];
             }
-            return indices;
+            kept = Math.min(filled, substringLen - 1);
+            System.arraycopy(buffer, filled - kept, buffer, 0, kept);
+            base += filled - kept;
         }
+        return found[0];
     }
 
     /**
-     * Посимвольная проверка содержимого кольцевого буфера и подстроки.
-     * Работает без создания новых объектов.
-     *
-     * @param windowArr Массив кольцевого буфера
-     * @param startPos  Индекс в массиве, который является логическим началом окна
-     * @param substring Искомый паттерн
-     */
-    private boolean checkEqualityPrimitive(char[] windowArr, int startPos, char[] substring) {
-        int len = substring.length;
-        for (int i = 0; i < len; i++) {
-            if (windowArr[(startPos + i) % len] != substring[i]) {
-                return false;
+     * Поиск с преобразованием текста. Прочитанные символы до начала
+     * последнего кластера преобразуются в буфер поиска, а последний
+     * кластер переносится в следующий блок, так как к нему могут
+     * относиться еще не прочитанные комбинируемые знаки. Если длина
+     * текста меняется, индексы вхождений берутся из массива индексов
+     * исходных символов, который перекрывается вместе с буфером.
+     */
+    private long findTransformed(InputStream in, LongPredicate action) throws IOException {
+        long[] found = {0};
+        char[] raw = new char[DEFAULT_BUFFER_SIZE];
+        int rawKept = 0;
+        long rawBase = 0;
+        char[] buffer = new char[TextTransform.MAX_EXPANSION * raw.length + substringLen];
+        long[] origin = transform.changesLength() ? new long[buffer.length] : null;
+        int kept = 0;
+        long base = 0;
+
+        Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        while (true) {
+            int charRead = reader.read(raw, rawKept, raw.length - rawKept);
+            boolean end = charRead == -1;
+            int rawFilled = rawKept + Math.max(charRead, 0);
+            int cut = end ? rawFilled : transform.safeEnd(raw, 0, rawFilled);
+            if (cut == 0 && rawFilled == raw.length) {
+                // Кластер длиннее буфера: преобразуется частями.
+                cut = rawFilled;
+            }
+
+            int filled = transform.transform(raw, 0, cut, rawBase, buffer, kept, origin);
+            long blockStart = base;
+            boolean proceed = algorithm.search(buffer, 0, filled, index -> {
+                found[0]++;
+                return action.test((origin != null) ? origin[index] : blockStart + index);
+            });
+            if (!proceed || end) {
+                return found[0];
             }
+            kept = Math.min(filled, substringLen - 1);
+            System.arraycopy(buffer, filled - kept, buffer, 0, kept);
+            if (origin != null) {
+                System.arraycopy(origin, filled - kept, origin, 0, kept);
+            }
+            base += filled - kept;
+
+            rawKept = rawFilled - cut;
+            System.arraycopy(raw, cut, raw, 0, rawKept);
+            rawBase += cut;
         }
-        return true;
     }
 
     /**
-     * Первичный расчет хэша (O(M)).
+     * Поиск подстроки в указанном файле без декодирования UTF-8.
+     * Файл отображается в память окнами, подстрока в UTF-8 ищется
+     * прямо в байтах, а индекс символа рассчитывается только для
+     * найденных вхождений. Результат совпадает с {@link #find(String)}
+     * для файлов в корректной кодировке UTF-8. С параметрами сравнения
+     * поиск выполняется по декодированному тексту, как в {@link #find(String)}.
+     *
+     * @param fileName Имя файла для поиска.
+     * @return Список Long индексов начала каждого вхождения.
+     * @throws IOException В случае ошибки чтения файла.
      */
-    private long calculateHash(char[] substring, int length) {
-        long hash = 0;
-        for (int i = 0; i < length; i++) {
-            hash = (d * hash + substring[i]) % PRIME_NUMBER;
+    public List<Long> findMapped(String fileName) throws IOException {
+        return findMapped(fileName, MAPPED_WINDOW_SIZE);
+    }
+
+    /**
+     * Поиск в отображенном файле с заданным размером окна.
+     * Соседние окна перекрываются на длину подстроки в байтах без одного.
+     */
+    List<Long> findMapped(String fileName, int windowSize) throws IOException {
+        List<Long> indices = new ArrayList<>();
+
+        if (this.isEmptySubstring) {
+            return indices;
+        }
+        if (byteSearch == null) {
+            return find(fileName);
+        }
+
+        try (FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long charIndex = 0;
+            for (long position = 0; position < fileSize; position += windowSize) {
+                long mapped = Math.min(fileSize - position,
+                        (long) windowSize + byteSearch.length() - 1);
+                MappedByteBuffer window =
+                        channel.map(FileChannel.MapMode.READ_ONLY, position, mapped);
+                int limit = (int) Math.min(windowSize, mapped);
+                charIndex += byteSearch.scan(window, limit, charIndex, indices::add);
+            }
         }
-        return hash;
+        return indices;
+    }
+
+    /**
+     * Параллельный поиск подстроки в указанном файле в общем пуле
+     * {@link ForkJoinPool#commonPool()}.
+     *
+     * @param fileName Имя файла для поиска.
+     * @return Список Long индексов начала каждого вхождения.
+     * @throws IOException В случае ошибки чтения файла.
+     * @see #findParallel(String, ForkJoinPool)
+     */
+    public List<Long> findParallel(String fileName) throws IOException {
+        return findParallel(fileName, ForkJoinPool.commonPool());
     }
 
     /**
-     * "Плавающий" хэш (O(1)).
+     * Параллельный поиск подстроки в указанном файле.
+     * Файл делится на части, которые отображаются в память и просматриваются
+     * независимо, как в {@link #findMapped(String)}; соседние части
+     * перекрываются на длину подстроки в байтах без одного. Каждая часть
+     * считает индексы символов от своего начала, а после поиска они сдвигаются
+     * на количество символов во всех предыдущих частях. С параметрами
+     * сравнения файл просматривается последовательно, как в {@link #find(String)}.
+     *
+     * @param fileName Имя файла для поиска.
+     * @param pool     Пул, в котором просматриваются части.
+     * @return Список Long индексов начала каждого вхождения.
+     * @throws IOException В случае ошибки чтения файла.
      */
-    private long rollHash(long oldHash, char oldSym, char newSym) {
-        long hash = oldHash;
+    public List<Long> findParallel(String fileName, ForkJoinPool pool) throws IOException {
+        return findParallel(fileName, pool, PARALLEL_CHUNK_SIZE);
+    }
 
-        long oldWeight = (oldSym * this.highestPower) % PRIME_NUMBER;
-        hash = (hash - oldWeight + PRIME_NUMBER) % PRIME_NUMBER;
+    /**
+     * Параллельный поиск с заданным размером части.
+     */
+    List<Long> findParallel(String fileName, ForkJoinPool pool,
+                            int chunkSize) throws IOException {
+        List<Long> indices = new ArrayList<>();
 
-        hash = (d * hash) % PRIME_NUMBER;
-        hash = (hash + newSym) % PRIME_NUMBER;
+        if (this.isEmptySubstring) {
+            return indices;
+        }
+        if (byteSearch == null) {
+            return find(fileName);
+        }
 
-        return hash;
+        try (FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            int chunkCount = (int) ((fileSize + chunkSize - 1) / chunkSize);
+            ChunkSearch[] chunks = new ChunkSearch[chunkCount];
+            for (int i = 0; i < chunkCount; i++) {
+                chunks[i] = new ChunkSearch(channel, byteSearch, (long) i * chunkSize,
+                        chunkSize, fileSize);
+            }
+            try {
+                pool.invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        invokeAll(chunks);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            long charBase = 0;
+            for (ChunkSearch chunk : chunks) {
+                for (int i = 0; i < chunk.matches.size(); i++) {
+                    indices.add(charBase + chunk.matches.get(i));
+                }
+                charBase += chunk.chars;
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * Поиск в одной части файла. Индексы вхождений считаются
+     * от начала части и хранятся без упаковки в {@link Long}.
+     */
+    private static final class ChunkSearch extends RecursiveAction {
+        private final FileChannel channel;
+        private final ByteSearch byteSearch;
+        private final long start;
+        private final int limit;
+        private final long mapped;
+        private final LongList matches = new LongList();
+        private long chars;
+
+        ChunkSearch(FileChannel channel, ByteSearch byteSearch, long start,
+                    int chunkSize, long fileSize) {
+            this.channel = channel;
+            this.byteSearch = byteSearch;
+            this.start = start;
+            this.mapped = Math.min(fileSize - start, (long) chunkSize + byteSearch.length() - 1);
+            this.limit = (int) Math.min(chunkSize, mapped);
+        }
+
+        @Override
+        protected void compute() {
+            MappedByteBuffer window;
+            try {
+                window = channel.map(FileChannel.MapMode.READ_ONLY, start, mapped);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            chars = byteSearch.scan(window, limit, 0, matches::add);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package ru.nsu.ryzhneva;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Алгоритм Бойера-Мура-Хорспула.
+ * Таблица сдвигов индексируется младшим байтом символа: символы
+ * с одинаковым младшим байтом получают наименьший из своих сдвигов,
+ * что сохраняет корректность при таблице из 256 элементов.
+ */
+final class HorspoolSearch extends AbstractSearch {
+
+    private static final int TABLE_SIZE = 256;
+
+    private final int[] shift = new int[TABLE_SIZE];
+
+    /**
+     * Конструктор с расчетом таблицы сдвигов.
+     *
+     * @param pattern Искомая подстрока.
+     */
+    HorspoolSearch(String pattern) {
+        super(pattern);
+        Arrays.fill(shift, length);
+        for (int i = 0; i < length - 1; i++) {
+            shift[chars[i] & (TABLE_SIZE - 1)] = length - 1 - i;
+        }
+    }
+
+    @Override
+    public boolean search(char[] text, int from, int to, IntPredicate action) {
+        char last = chars[length - 1];
+        for (int i = from; i <= to - length; ) {
+            char c = text[i + length - 1];
+            if (c == last && regionMatches(text, i, 0, length - 1)) {
+                if (!action.test(i)) {
+                    return false;
+                }
+            }
+            i += shift[c & (TABLE_SIZE - 1)];
+        }
+        return true;
+    }
+}
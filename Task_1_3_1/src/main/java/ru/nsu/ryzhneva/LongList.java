@@ -0,0 +1,51 @@
+package ru.nsu.ryzhneva;
+
+import java.util.Arrays;
+
+/**
+ * Расширяемый массив {@code long} без упаковки элементов в {@link Long}.
+ */
+final class LongList {
+    private long[] elements = new long[16];
+    private int size = 0;
+
+    /**
+     * Добавляет элемент в конец.
+     *
+     * @param value Элемент.
+     */
+    void add(long value) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size * 2);
+        }
+        elements[size++] = value;
+    }
+
+    /**
+     * Возвращает элемент по индексу.
+     *
+     * @param index Индекс от 0 до {@code size() - 1}.
+     * @return Элемент.
+     */
+    long get(int index) {
+        return elements[index];
+    }
+
+    /**
+     * Возвращает количество элементов.
+     *
+     * @return Размер.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Копирует элементы в массив точной длины.
+     *
+     * @return Новый массив.
+     */
+    long[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+}
@@ -24,7 +24,7 @@ public class Main {
 
         Path filePath = Paths.get(fileName);
 
-        System.out.println("--- Демонстрация StreamSubstringFinder (ООП + Рабин-Карп) ---");
+        System.out.println("--- Демонстрация StreamSubstringFinder ---");
         System.out.println("Файл: " + fileName);
         System.out.println("Содержимое: \"" + content + "\"");
         System.out.println("Ищем: \"" + substring + "\"");
@@ -33,6 +33,7 @@ public class Main {
             Files.writeString(filePath, content, StandardCharsets.UTF_8);
 
             FindSubstring finder = new FindSubstring(substring);
+            System.out.println("Алгоритм: " + finder.getAlgorithm());
             List<Long> indices = finder.find(fileName);
             System.out.println("\nРезультат (найденные индексы): " + indices);
 
@@ -0,0 +1,299 @@
+package ru.nsu.ryzhneva;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Класс для поиска вхождений сразу нескольких подстрок в файле
+ * за один проход (алгоритм Ахо-Корасик).
+ *
+ * <p>Переходы автомата хранятся в двойном массиве: переход из состояния
+ * {@code s} по символу с кодом {@code c} ведет в {@code base[s] + c},
+ * если {@code check[base[s] + c] == s}. Символы, не встречающиеся
+ * в подстроках, сразу возвращают автомат в корень.
+ */
+public class MultiPatternFinder {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    private final int[] patternLengths;
+    private final int[] charCodes;
+    private int[] base;
+    private int[] check;
+    private int[] fail;
+    private int[] output;
+    private int[] outputLink;
+    private final int[] nextSamePattern;
+
+    /**
+     * Вхождение подстроки.
+     *
+     * @param patternId Номер подстроки в списке, переданном конструктору.
+     * @param offset    Индекс начала вхождения.
+     */
+    public record Match(int patternId, long offset) {
+    }
+
+    /**
+     * Конструктор класса с построением автомата
+     * для искомых подстрок.
+     *
+     * @param patterns Искомые подстроки.
+     */
+    public MultiPatternFinder(String... patterns) {
+        if (patterns == null) {
+            throw new IllegalArgumentException("Patterns cannot be null");
+        }
+        for (String pattern : patterns) {
+            if (pattern == null) {
+                throw new IllegalArgumentException("Pattern cannot be null");
+            }
+        }
+        this.patternLengths = new int[patterns.length];
+        this.nextSamePattern = new int[patterns.length];
+        Arrays.fill(nextSamePattern, NONE);
+        this.charCodes = new int[Character.MAX_VALUE + 1];
+        int alphabetSize = 0;
+        for (String pattern : patterns) {
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (charCodes[c] == 0) {
+                    charCodes[c] = ++alphabetSize;
+                }
+            }
+        }
+        build(buildTrie(patterns));
+    }
+
+    /**
+     * Конструктор класса по списку подстрок.
+     *
+     * @param patterns Искомые подстроки.
+     */
+    public MultiPatternFinder(List<String> patterns) {
+        this((patterns == null) ? null : patterns.toArray(new String[0]));
+    }
+
+    /**
+     * Узел промежуточного префиксного дерева. Дети отсортированы по коду символа.
+     */
+    private static final class TrieNode {
+        final List<int[]> children = new ArrayList<>();
+        int patternId = NONE;
+
+        TrieNode child(int code, List<TrieNode> nodes) {
+            int lo = 0;
+            int hi = children.size() - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int midCode = children.get(mid)[0];
+                if (midCode == code) {
+                    return nodes.get(children.get(mid)[1]);
+                }
+                if (midCode < code) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            TrieNode node = new TrieNode();
+            children.add(lo, new int[]{code, nodes.size()});
+            nodes.add(node);
+            return node;
+        }
+    }
+
+    /**
+     * Строит префиксное дерево подстрок.
+     *
+     * @return Узлы дерева, корень — первый.
+     */
+    private List<TrieNode> buildTrie(String[] patterns) {
+        List<TrieNode> nodes = new ArrayList<>();
+        nodes.add(new TrieNode());
+        for (int id = 0; id < patterns.length; id++) {
+            String pattern = patterns[id];
+            patternLengths[id] = pattern.length();
+            if (pattern.isEmpty()) {
+                continue;
+            }
+            TrieNode node = nodes.get(0);
+            for (int i = 0; i < pattern.length(); i++) {
+                node = node.child(charCodes[pattern.charAt(i)], nodes);
+            }
+            if (node.patternId != NONE) {
+                nextSamePattern[id] = node.patternId;
+            }
+            node.patternId = id;
+        }
+        return nodes;
+    }
+
+    /**
+     * Раскладывает дерево в двойной массив и рассчитывает переходы по неудаче.
+     * Узлы обходятся в ширину, поэтому ссылка по неудаче всегда ведет
+     * в уже обработанное состояние.
+     */
+    private void build(List<TrieNode> nodes) {
+        int capacity = Math.max(16, nodes.size() * 2);
+        base = new int[capacity];
+        check = new int[capacity];
+        Arrays.fill(check, NONE);
+        check[ROOT] = ROOT;
+
+        int[] stateOf = new int[nodes.size()];
+        int[] parentState = new int[nodes.size()];
+        int[] codeFromParent = new int[nodes.size()];
+        int[] order = new int[nodes.size()];
+        int ordered = 0;
+        int nextFree = 1;
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(0);
+        while (!queue.isEmpty()) {
+            int index = queue.poll();
+            TrieNode node = nodes.get(index);
+            int state = stateOf[index];
+            order[ordered++] = index;
+            if (node.children.isEmpty()) {
+                continue;
+            }
+            while (nextFree < check.length && check[nextFree] != NONE) {
+                nextFree++;
+            }
+            int b = findBase(node, nextFree);
+            base[state] = b;
+            for (int[] child : node.children) {
+                int target = b + child[0];
+                check[target] = state;
+                stateOf[child[1]] = target;
+                parentState[child[1]] = state;
+                codeFromParent[child[1]] = child[0];
+                queue.add(child[1]);
+            }
+        }
+
+        int states = check.length;
+        fail = new int[states];
+        output = new int[states];
+        outputLink = new int[states];
+        Arrays.fill(output, NONE);
+        Arrays.fill(outputLink, NONE);
+        for (int k = 0; k < ordered; k++) {
+            int index = order[k];
+            int state = stateOf[index];
+            output[state] = nodes.get(index).patternId;
+            if (index == 0) {
+                continue;
+            }
+            int parent = parentState[index];
+            int f = ROOT;
+            if (parent != ROOT) {
+                f = fail[parent];
+                int next;
+                while ((next = transition(f, codeFromParent[index])) == NONE && f != ROOT) {
+                    f = fail[f];
+                }
+                f = (next == NONE) ? ROOT : next;
+            }
+            fail[state] = f;
+            outputLink[state] = (output[f] != NONE) ? f : outputLink[f];
+        }
+    }
+
+    /**
+     * Ищет наименьшее смещение, при котором все дети узла попадают в свободные ячейки.
+     * При нехватке места массивы расширяются.
+     */
+    private int findBase(TrieNode node, int nextFree) {
+        int first = node.children.get(0)[0];
+        for (int b = Math.max(1, nextFree - first); ; b++) {
+            boolean fits = true;
+            for (int[] child : node.children) {
+                int target = b + child[0];
+                if (target >= check.length) {
+                    grow(target + 1);
+                }
+                if (check[target] != NONE) {
+                    fits = false;
+                    break;
+                }
+            }
+            if (fits) {
+                return b;
+            }
+        }
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, check.length * 2);
+        int old = check.length;
+        base = Arrays.copyOf(base, capacity);
+        check = Arrays.copyOf(check, capacity);
+        Arrays.fill(check, old, capacity, NONE);
+    }
+
+    /**
+     * Переход по двойному массиву.
+     *
+     * @return Новое состояние или {@link #NONE}, если перехода нет.
+     */
+    private int transition(int state, int code) {
+        int target = base[state] + code;
+        if (code == 0 || base[state] == 0 || target >= check.length || check[target] != state) {
+            return NONE;
+        }
+        return target;
+    }
+
+    /**
+     * Поиск всех подстрок в указанном файле за один проход.
+     *
+     * @param fileName Имя файла для поиска.
+     * @return Список вхождений в порядке их окончания в файле.
+     * @throws IOException В случае ошибки чтения файла.
+     */
+    public List<Match> find(String fileName) throws IOException {
+        List<Match> matches = new ArrayList<>();
+        char[] buffer = new char[DEFAULT_BUFFER_SIZE];
+        long globalIndex = 0;
+        int state = ROOT;
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(
+                        new FileInputStream(fileName), StandardCharsets.UTF_8))) {
+            int charRead;
+            while ((charRead = reader.read(buffer)) != -1) {
+                for (int i = 0; i < charRead; i++) {
+                    int code = charCodes[buffer[i]];
+                    globalIndex++;
+                    if (code == 0) {
+                        state = ROOT;
+                        continue;
+                    }
+                    int next;
+                    while ((next = transition(state, code)) == NONE && state != ROOT) {
+                        state = fail[state];
+                    }
+                    state = (next == NONE) ? ROOT : next;
+                    int out = (output[state] != NONE) ? state : outputLink[state];
+                    for (; out != NONE; out = outputLink[out]) {
+                        for (int id = output[out]; id != NONE; id = nextSamePattern[id]) {
+                            matches.add(new Match(id, globalIndex - patternLengths[id]));
+                        }
+                    }
+                }
+            }
+            return matches;
+        }
+    }
+}
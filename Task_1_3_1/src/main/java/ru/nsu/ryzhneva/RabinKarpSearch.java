@@ -0,0 +1,159 @@
+package ru.nsu.ryzhneva;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+
+/**
+ * Алгоритм Рабина-Карпа: хэш окна пересчитывается при сдвиге за O(1),
+ * а посимвольное сравнение выполняется только при совпадении хэшей.
+ *
+ * <p>Хэш считается по модулю простого числа Мерсенна 2<sup>61</sup> − 1:
+ * остаток от произведения получается сдвигами и сложениями без деления,
+ * а вероятность совпадения хэшей разных окон — порядка длины подстроки,
+ * деленной на 2<sup>61</sup>. Основание выбирается случайно для каждого
+ * экземпляра, поэтому подобрать текст с частыми коллизиями нельзя.
+ * Количество проверок и ложных совпадений хэша можно получить
+ * для оценки качества хэша на реальных данных.
+ */
+public final class RabinKarpSearch extends AbstractSearch {
+
+    private static final long MERSENNE_PRIME = (1L << 61) - 1;
+    private static final long MIN_BASE = 1 << 16;
+
+    private final long base;
+    private final long patternHash;
+    private final long highestPower;
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    /**
+     * Конструктор с расчетом хэша подстроки.
+     *
+     * @param pattern Искомая подстрока.
+     */
+    RabinKarpSearch(String pattern) {
+        this(pattern, ThreadLocalRandom.current().nextLong(MIN_BASE, MERSENNE_PRIME));
+    }
+
+    /**
+     * Конструктор с заданным основанием хэша.
+     *
+     * @param pattern Искомая подстрока.
+     * @param base    Основание из {@code [2, 2^61 - 1)}.
+     */
+    RabinKarpSearch(String pattern, long base) {
+        super(pattern);
+        if (base < 2 || base >= MERSENNE_PRIME) {
+            throw new IllegalArgumentException("Hash base is out of range");
+        }
+        this.base = base;
+        this.patternHash = calculateHash(chars, 0, length);
+        long power = 1;
+        for (int i = 0; i < length - 1; i++) {
+            power = multiplyMod(power, base);
+        }
+        this.highestPower = power;
+    }
+
+    @Override
+    public boolean search(char[] text, int from, int to, IntPredicate action) {
+        if (to - from < length) {
+            return true;
+        }
+        long hash = calculateHash(text, from, length);
+        for (int i = from; ; i++) {
+            if (hash == patternHash && verify(text, i)) {
+                if (!action.test(i)) {
+                    return false;
+                }
+            }
+            if (i + length >= to) {
+                return true;
+            }
+            hash = rollHash(hash, text[i], text[i + length]);
+        }
+    }
+
+    /**
+     * Возвращает количество посимвольных проверок окон, хэш которых
+     * совпал с хэшем подстроки, во всех вызовах {@link #search}.
+     *
+     * @return Количество проверок.
+     */
+    public long getVerifications() {
+        return verifications.sum();
+    }
+
+    /**
+     * Возвращает количество проверок, в которых окно не совпало
+     * с подстрокой, то есть коллизий хэша.
+     *
+     * @return Количество ложных совпадений хэша.
+     */
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+
+    /**
+     * Обнуляет счетчики проверок и ложных совпадений.
+     */
+    public void resetCounters() {
+        verifications.reset();
+        falsePositives.reset();
+    }
+
+    /**
+     * Сравнивает окно с подстрокой без раннего выхода по символам:
+     * {@link Arrays#equals(char[], int, int, char[], int, int)} сравнивает
+     * векторами, а при совпадении хэшей окно почти всегда совпадает целиком.
+     */
+    private boolean verify(char[] text, int offset) {
+        verifications.increment();
+        if (Arrays.equals(text, offset, offset + length, chars, 0, length)) {
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Первичный расчет хэша (O(M)).
+     */
+    private long calculateHash(char[] text, int from, int length) {
+        long hash = 0;
+        for (int i = from; i < from + length; i++) {
+            hash = reduce(multiplyMod(hash, base) + text[i]);
+        }
+        return hash;
+    }
+
+    /**
+     * "Плавающий" хэш (O(1)): вес уходящего символа вычитается,
+     * а знак разности исправляется без ветвления.
+     */
+    private long rollHash(long oldHash, char oldSym, char newSym) {
+        long hash = oldHash - multiplyMod(oldSym, highestPower);
+        hash += (hash >> 63) & MERSENNE_PRIME;
+        return reduce(multiplyMod(hash, base) + newSym);
+    }
+
+    /**
+     * Произведение по модулю 2^61 − 1. Старшие биты 128-битного
+     * произведения сдвигаются на место младших, так как 2^61 ≡ 1.
+     */
+    private static long multiplyMod(long a, long b) {
+        long low = a * b;
+        long high = Math.multiplyHigh(a, b);
+        return reduce((low & MERSENNE_PRIME) + (low >>> 61) + (high << 3));
+    }
+
+    /**
+     * Приводит число из {@code [0, 2^63)} к остатку по модулю 2^61 − 1.
+     */
+    private static long reduce(long x) {
+        long r = (x & MERSENNE_PRIME) + (x >>> 61);
+        return (r >= MERSENNE_PRIME) ? r - MERSENNE_PRIME : r;
+    }
+}
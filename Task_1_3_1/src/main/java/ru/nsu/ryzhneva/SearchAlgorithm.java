@@ -0,0 +1,112 @@
+package ru.nsu.ryzhneva;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Алгоритм поиска подстроки в массиве символов.
+ * Экземпляр строится для одной подстроки и не хранит состояния поиска
+ * между вызовами {@link #search}, поэтому может использоваться
+ * из нескольких потоков.
+ */
+public interface SearchAlgorithm {
+
+    /**
+     * Возвращает подстроку, для которой построен алгоритм.
+     *
+     * @return Искомая подстрока.
+     */
+    String pattern();
+
+    /**
+     * Ищет вхождения, целиком лежащие в {@code text[from, to)},
+     * и передает индекс начала каждого из них обработчику по возрастанию.
+     *
+     * @param text   Массив символов.
+     * @param from   Начало области поиска.
+     * @param to     Конец области поиска (не включается).
+     * @param action Обработчик индекса вхождения; {@code false} прекращает поиск.
+     * @return {@code false}, если поиск прекращен обработчиком.
+     */
+    boolean search(char[] text, int from, int to, IntPredicate action);
+
+    /**
+     * Алгоритм Рабина-Карпа с плавающим хэшем по модулю 2<sup>61</sup> − 1.
+     * Возвращает {@link RabinKarpSearch}, чтобы были доступны счетчики
+     * проверок и ложных совпадений хэша.
+     *
+     * @param pattern Непустая подстрока.
+     * @return Алгоритм поиска.
+     */
+    static RabinKarpSearch rabinKarp(String pattern) {
+        return new RabinKarpSearch(pattern);
+    }
+
+    /**
+     * Алгоритм Бойера-Мура-Хорспула. Сдвиг определяется по последнему
+     * символу окна, поэтому на длинных подстроках большая часть текста
+     * пропускается без сравнений.
+     *
+     * @param pattern Непустая подстрока.
+     * @return Алгоритм поиска.
+     */
+    static SearchAlgorithm horspool(String pattern) {
+        return new HorspoolSearch(pattern);
+    }
+
+    /**
+     * Двусторонний алгоритм Крошмора-Перрена. Работает за линейное время
+     * с постоянной дополнительной памятью при любом алфавите.
+     *
+     * @param pattern Непустая подстрока.
+     * @return Алгоритм поиска.
+     */
+    static SearchAlgorithm twoWay(String pattern) {
+        return new TwoWaySearch(pattern);
+    }
+
+    /**
+     * Фильтр кандидатов по первому и последнему символу подстроки:
+     * полное сравнение выполняется только для позиций, где совпали оба.
+     *
+     * @param pattern Непустая подстрока.
+     * @return Алгоритм поиска.
+     */
+    static SearchAlgorithm candidateFilter(String pattern) {
+        return new CandidateFilterSearch(pattern);
+    }
+
+    /**
+     * Алгоритм Хорспула с подстановочным символом, совпадающим
+     * с любым одним символом текста.
+     *
+     * @param pattern  Непустая подстрока.
+     * @param wildcard Подстановочный символ.
+     * @return Алгоритм поиска.
+     */
+    static SearchAlgorithm wildcard(String pattern, char wildcard) {
+        return new WildcardSearch(pattern, wildcard);
+    }
+
+    /**
+     * Выбирает алгоритм по длине и алфавиту подстроки.
+     * Для коротких подстрок сдвиги не окупаются, и выбирается фильтр
+     * кандидатов. Для подстрок из нескольких различных символов сдвиги
+     * Хорспула малы, и выбирается двусторонний алгоритм. В остальных
+     * случаях выбирается алгоритм Хорспула.
+     *
+     * @param pattern Непустая подстрока.
+     * @return Алгоритм поиска.
+     */
+    static SearchAlgorithm select(String pattern) {
+        if (pattern == null || pattern.isEmpty()) {
+            throw new IllegalArgumentException("Pattern cannot be null or empty");
+        }
+        if (pattern.length() <= CandidateFilterSearch.MAX_SELECTED_LENGTH) {
+            return candidateFilter(pattern);
+        }
+        if (pattern.chars().distinct().count() <= TwoWaySearch.MAX_SELECTED_ALPHABET) {
+            return twoWay(pattern);
+        }
+        return horspool(pattern);
+    }
+}
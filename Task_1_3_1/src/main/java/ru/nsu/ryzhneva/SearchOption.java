@@ -0,0 +1,27 @@
+package ru.nsu.ryzhneva;
+
+/**
+ * Параметры сравнения подстроки с текстом файла в {@link FindSubstring}.
+ * Текст преобразуется по мере чтения, без промежуточных копий файла,
+ * а индексы вхождений считаются в символах исходного текста.
+ */
+public enum SearchOption {
+
+    /**
+     * Сравнение без учета регистра: символы подстроки и текста приводятся
+     * к нижнему регистру после приведения к верхнему, как в
+     * {@link String#equalsIgnoreCase}.
+     */
+    IGNORE_CASE,
+
+    /**
+     * Сравнение после нормализации подстроки и текста к форме NFC,
+     * так что, например, «й» и «и» с комбинируемым знаком краткой совпадают.
+     */
+    NORMALIZE,
+
+    /**
+     * Символ {@code '?'} в подстроке совпадает с любым одним символом текста.
+     */
+    WILDCARD
+}
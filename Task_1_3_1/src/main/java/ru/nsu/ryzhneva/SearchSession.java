@@ -0,0 +1,249 @@
+package ru.nsu.ryzhneva;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+/**
+ * Возобновляемый поиск подстроки в растущем файле (например, в журнале).
+ * Сессия помнит, сколько байт файла уже просмотрено, последние символы
+ * длиной в подстроку без одного и их индекс, а также байты незавершенного
+ * символа UTF-8 в конце файла. Каждый вызов {@link #poll} читает только
+ * дописанные байты и сообщает только новые вхождения, в том числе
+ * начавшиеся в уже прочитанной части.
+ *
+ * <p>Состояние можно сохранить в файл и восстановить после перезапуска.
+ * Если файл стал короче просмотренной части (журнал усечен),
+ * поиск начинается с начала файла.
+ */
+public final class SearchSession {
+
+    private static final int MAGIC = 0x53534553;
+    private static final int VERSION = 1;
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_PENDING_BYTES = 3;
+
+    private final Path file;
+    private final SearchAlgorithm algorithm;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private long bytePosition = 0;
+    private long charIndex = 0;
+    private final char[] tail;
+    private int tailLength = 0;
+    private final byte[] pending = new byte[MAX_PENDING_BYTES];
+    private int pendingLength = 0;
+
+    /**
+     * Создает сессию, которая начинает поиск с начала файла.
+     * Поиск без учета регистра и с нормализацией сессия не поддерживает.
+     *
+     * @param finder Поиск искомой подстроки.
+     * @param file   Файл в кодировке UTF-8.
+     */
+    public SearchSession(FindSubstring finder, Path file) {
+        if (finder == null || file == null) {
+            throw new IllegalArgumentException("Finder and file cannot be null");
+        }
+        if (finder.getOptions().contains(SearchOption.IGNORE_CASE)
+                || finder.getOptions().contains(SearchOption.NORMALIZE)) {
+            throw new IllegalArgumentException("Case and normalization options are not supported");
+        }
+        this.file = file;
+        this.algorithm = finder.getAlgorithm();
+        int substringLen = (algorithm == null) ? 0 : algorithm.pattern().length();
+        this.tail = new char[Math.max(substringLen - 1, 0)];
+    }
+
+    /**
+     * Восстанавливает сессию из файла состояния.
+     *
+     * @param finder    Поиск той же подстроки, что и в сохраненной сессии.
+     * @param file      Файл в кодировке UTF-8.
+     * @param stateFile Файл, записанный {@link #save(Path)}.
+     * @return Сессия, продолжающая поиск с сохраненного места.
+     * @throws IOException В случае ошибки чтения или если файл состояния поврежден.
+     */
+    public static SearchSession restore(FindSubstring finder, Path file,
+                                        Path stateFile) throws IOException {
+        SearchSession session = new SearchSession(finder, file);
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(stateFile))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a search session state: " + stateFile);
+            }
+            String pattern = in.readUTF();
+            String expected = (session.algorithm == null) ? "" : session.algorithm.pattern();
+            if (!pattern.equals(expected)) {
+                throw new IllegalArgumentException("The state was saved for another substring");
+            }
+            session.bytePosition = in.readLong();
+            session.charIndex = in.readLong();
+            session.pendingLength = in.readUnsignedByte();
+            session.tailLength = in.readInt();
+            if (session.pendingLength > MAX_PENDING_BYTES
+                    || session.tailLength < 0 || session.tailLength > session.tail.length) {
+                throw new IOException("The search session state is corrupted: " + stateFile);
+            }
+            in.readFully(session.pending, 0, session.pendingLength);
+            for (int i = 0; i < session.tailLength; i++) {
+                session.tail[i] = in.readChar();
+            }
+        }
+        return session;
+    }
+
+    /**
+     * Сохраняет состояние сессии. Файл заменяется атомарно.
+     *
+     * @param stateFile Файл состояния.
+     * @throws IOException В случае ошибки записи.
+     */
+    public void save(Path stateFile) throws IOException {
+        Path tmp = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(tmp))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF((algorithm == null) ? "" : algorithm.pattern());
+            out.writeLong(bytePosition);
+            out.writeLong(charIndex);
+            out.writeByte(pendingLength);
+            out.writeInt(tailLength);
+            out.write(pending, 0, pendingLength);
+            for (int i = 0; i < tailLength; i++) {
+                out.writeChar(tail[i]);
+            }
+        }
+        Files.move(tmp, stateFile, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Возвращает количество просмотренных байт файла.
+     *
+     * @return Позиция в файле, с которой продолжится чтение
+     *         (без байт незавершенного символа).
+     */
+    public long getBytePosition() {
+        return bytePosition;
+    }
+
+    /**
+     * Возвращает количество полностью прочитанных символов файла.
+     *
+     * @return Индекс следующего символа.
+     */
+    public long getCharCount() {
+        return charIndex + tailLength;
+    }
+
+    /**
+     * Дочитывает файл до текущего конца и сообщает новые вхождения.
+     *
+     * @param action Обработчик индекса начала вхождения.
+     * @return Количество новых вхождений.
+     * @throws IOException В случае ошибки чтения файла.
+     */
+    public long poll(LongConsumer action) throws IOException {
+        if (algorithm == null) {
+            return 0;
+        }
+        long[] found = {0};
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < bytePosition + pendingLength) {
+                reset();
+            }
+            ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_SIZE + MAX_PENDING_BYTES);
+            in.put(pending, 0, pendingLength);
+            char[] chars = new char[in.capacity() + tail.length];
+            System.arraycopy(tail, 0, chars, 0, tailLength);
+            CharBuffer out = CharBuffer.wrap(chars);
+            out.position(tailLength);
+            long readPosition = bytePosition + pendingLength;
+            decoder.reset();
+
+            int n;
+            while ((n = channel.read(in, readPosition)) > 0) {
+                readPosition += n;
+                in.flip();
+                decoder.decode(in, out, false);
+                in.compact();
+
+                int filled = out.position();
+                long blockStart = charIndex;
+                algorithm.search(chars, 0, filled, index -> {
+                    found[0]++;
+                    action.accept(blockStart + index);
+                    return true;
+                });
+                int kept = Math.min(filled, tail.length);
+                System.arraycopy(chars, filled - kept, chars, 0, kept);
+                charIndex += filled - kept;
+                out.position(kept);
+            }
+
+            pendingLength = in.position();
+            in.flip();
+            in.get(pending, 0, pendingLength);
+            bytePosition = readPosition - pendingLength;
+            tailLength = out.position();
+            System.arraycopy(chars, 0, tail, 0, tailLength);
+        }
+        return found[0];
+    }
+
+    /**
+     * Следит за файлом и сообщает новые вхождения, пока поток не прерван.
+     * Файл дочитывается при каждом изменении в его каталоге
+     * ({@link WatchService}), но не реже заданного интервала, так как
+     * не все файловые системы сообщают об изменениях.
+     *
+     * @param action       Обработчик индекса начала вхождения.
+     * @param pollInterval Наибольший интервал между проверками в миллисекундах.
+     * @throws IOException          В случае ошибки чтения файла.
+     * @throws InterruptedException когда поток прерван.
+     */
+    public void follow(LongConsumer action, long pollInterval)
+            throws IOException, InterruptedException {
+        Path directory = file.toAbsolutePath().getParent();
+        try (WatchService watcher = directory.getFileSystem().newWatchService()) {
+            directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            while (true) {
+                try {
+                    poll(action);
+                } catch (ClosedByInterruptException e) {
+                    throw new InterruptedException("Following was interrupted");
+                }
+                WatchKey key = watcher.poll(pollInterval, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    key.pollEvents();
+                    key.reset();
+                }
+            }
+        }
+    }
+
+    private void reset() {
+        bytePosition = 0;
+        charIndex = 0;
+        tailLength = 0;
+        pendingLength = 0;
+    }
+}
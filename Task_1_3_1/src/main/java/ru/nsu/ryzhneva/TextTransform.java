@@ -0,0 +1,197 @@
+package ru.nsu.ryzhneva;
+
+import java.nio.CharBuffer;
+import java.text.Normalizer;
+
+/**
+ * Потоковое преобразование текста для {@link SearchOption#IGNORE_CASE}
+ * и {@link SearchOption#NORMALIZE}. Текст обрабатывается блоками,
+ * которые режутся на границах кластеров — символа, не являющегося
+ * комбинируемым знаком, со следующими за ним знаками. Нормализация
+ * не переносит символы через такие границы, поэтому блоки
+ * преобразуются независимо и память не зависит от размера файла.
+ *
+ * <p>Нормализация может менять длину текста, поэтому для каждого
+ * выходного символа запоминается индекс исходного символа. Первый
+ * символ нормализованного кластера соответствует началу исходного,
+ * остальные — символам на тех же позициях внутри исходного кластера.
+ */
+final class TextTransform {
+
+    /**
+     * Во сколько раз NFC может удлинить текст в символах UTF-16.
+     */
+    static final int MAX_EXPANSION = 3;
+
+    private static final char FIRST_COMBINING = '\u0300';
+    private static final char JAMO_V_FIRST = '\u1161';
+    private static final char JAMO_T_LAST = '\u11c2';
+
+    private final boolean ignoreCase;
+    private final boolean normalize;
+
+    /**
+     * Конструктор.
+     *
+     * @param ignoreCase Приводить ли символы к одному регистру.
+     * @param normalize  Нормализовать ли текст к форме NFC.
+     */
+    TextTransform(boolean ignoreCase, boolean normalize) {
+        this.ignoreCase = ignoreCase;
+        this.normalize = normalize;
+    }
+
+    /**
+     * Проверяет, может ли преобразование менять длину текста.
+     *
+     * @return {@code true}, если индексы нужно пересчитывать.
+     */
+    boolean changesLength() {
+        return normalize;
+    }
+
+    /**
+     * Преобразует строку целиком (используется для подстроки).
+     *
+     * @param text Строка.
+     * @return Преобразованная строка.
+     */
+    String apply(String text) {
+        char[] result = (normalize ? Normalizer.normalize(text, Normalizer.Form.NFC) : text)
+                .toCharArray();
+        if (ignoreCase) {
+            foldCase(result, 0, result.length);
+        }
+        return new String(result);
+    }
+
+    /**
+     * Возвращает границу, до которой блок можно преобразовать,
+     * не дожидаясь следующих символов: начало последнего кластера
+     * или, без нормализации, конец блока без оборванной суррогатной пары.
+     *
+     * @param text Массив символов.
+     * @param from Начало блока.
+     * @param to   Конец блока.
+     * @return Индекс границы из {@code [from, to]}.
+     */
+    int safeEnd(char[] text, int from, int to) {
+        if (!normalize) {
+            return (to > from && Character.isHighSurrogate(text[to - 1])) ? to - 1 : to;
+        }
+        for (int i = to - 1; i > from; i--) {
+            if (startsCluster(text, i, to)) {
+                return i;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * Преобразует {@code src[from, to)} и дописывает результат в {@code dst}.
+     * В {@code dst} должно быть место для {@link #MAX_EXPANSION} символов
+     * на каждый исходный.
+     *
+     * @param src      Исходные символы, заканчивающиеся на границе кластера.
+     * @param from     Начало исходных символов.
+     * @param to       Конец исходных символов.
+     * @param srcIndex Индекс символа {@code src[from]} в исходном тексте.
+     * @param dst      Массив для результата.
+     * @param pos      Позиция записи в {@code dst}.
+     * @param origin   Массив для индексов исходных символов
+     *                 или {@code null}, если длина не меняется.
+     * @return Позиция после записанных символов.
+     */
+    int transform(char[] src, int from, int to, long srcIndex,
+                  char[] dst, int pos, long[] origin) {
+        int start = pos;
+        if (normalize && !Normalizer.isNormalized(
+                CharBuffer.wrap(src, from, to - from), Normalizer.Form.NFC)) {
+            int cluster = from;
+            for (int i = from + 1; i <= to; i++) {
+                if (i == to || startsCluster(src, i, to)) {
+                    pos = normalizeCluster(src, cluster, i, srcIndex + cluster - from,
+                            dst, pos, origin);
+                    cluster = i;
+                }
+            }
+        } else {
+            System.arraycopy(src, from, dst, pos, to - from);
+            if (origin != null) {
+                for (int i = 0; i < to - from; i++) {
+                    origin[pos + i] = srcIndex + i;
+                }
+            }
+            pos += to - from;
+        }
+        if (ignoreCase) {
+            foldCase(dst, start, pos);
+        }
+        return pos;
+    }
+
+    private static int normalizeCluster(char[] src, int from, int to, long srcIndex,
+                                        char[] dst, int pos, long[] origin) {
+        if (to - from == 1 && src[from] < FIRST_COMBINING) {
+            dst[pos] = src[from];
+            origin[pos] = srcIndex;
+            return pos + 1;
+        }
+        String normalized = Normalizer.normalize(
+                CharBuffer.wrap(src, from, to - from), Normalizer.Form.NFC);
+        for (int i = 0; i < normalized.length(); i++) {
+            dst[pos] = normalized.charAt(i);
+            origin[pos] = srcIndex + Math.min(i, to - from - 1);
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Проверяет, начинается ли с {@code text[i]} новый кластер: символ
+     * не является второй половиной суррогатной пары, комбинируемым знаком
+     * или гласной и конечной чамо хангыля, которые соединяются
+     * с предыдущим слогом.
+     */
+    private static boolean startsCluster(char[] text, int i, int to) {
+        char c = text[i];
+        if (c < FIRST_COMBINING) {
+            return true;
+        }
+        if (Character.isLowSurrogate(c) || (c >= JAMO_V_FIRST && c <= JAMO_T_LAST)) {
+            return false;
+        }
+        int codePoint = c;
+        if (Character.isHighSurrogate(c)) {
+            if (i + 1 == to) {
+                return false;
+            }
+            codePoint = Character.toCodePoint(c, text[i + 1]);
+        }
+        int type = Character.getType(codePoint);
+        return type != Character.NON_SPACING_MARK && type != Character.ENCLOSING_MARK
+                && type != Character.COMBINING_SPACING_MARK;
+    }
+
+    private static void foldCase(char[] text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = text[i];
+            if (c < 0x80) {
+                if (c >= 'A' && c <= 'Z') {
+                    text[i] = (char) (c + ('a' - 'A'));
+                }
+            } else if (Character.isHighSurrogate(c) && i + 1 < to
+                    && Character.isLowSurrogate(text[i + 1])) {
+                int folded = Character.toLowerCase(Character.toUpperCase(
+                        Character.toCodePoint(c, text[i + 1])));
+                if (Character.isSupplementaryCodePoint(folded)) {
+                    text[i] = Character.highSurrogate(folded);
+                    text[i + 1] = Character.lowSurrogate(folded);
+                }
+                i++;
+            } else {
+                text[i] = Character.toLowerCase(Character.toUpperCase(c));
+            }
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package ru.nsu.ryzhneva;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Индекс триграмм для повторного поиска подстрок в неизменяемом файле.
+ * Файл делится на блоки; для каждой триграммы байтов UTF-8 индекс хранит
+ * номера блоков, в которых она начинается. Поиск выбирает блоки, где
+ * встречаются все триграммы подстроки, и просматривает только их,
+ * поэтому для редких подстрок читается малая часть файла.
+ *
+ * <p>Триграммы хэшируются в {@value #BUCKET_BITS}-битные корзины:
+ * совпадение корзин дает лишний блок-кандидат, но не пропуск вхождения.
+ * Вхождение может начинаться в одном блоке и продолжаться в следующем,
+ * поэтому блок считается кандидатом, если каждая триграмма подстроки
+ * есть в нем или в следующем блоке.
+ *
+ * <p>Формат файла индекса: заголовок, количество символов перед каждым
+ * блоком, границы списков блоков для корзин и сами списки. Индекс хранит
+ * размер и время изменения исходного файла и не открывается, если файл
+ * изменился.
+ */
+public final class TrigramIndex implements AutoCloseable {
+
+    private static final int MAGIC = 0x54524947;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 40;
+    private static final int BUCKET_BITS = 20;
+    private static final int BUCKETS = 1 << BUCKET_BITS;
+    private static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+    private static final int MAX_POSTINGS_IN_MEMORY = 1 << 25;
+
+    private final Path source;
+    private final FileChannel sourceChannel;
+    private final FileChannel indexChannel;
+    private final long sourceSize;
+    private final int blockSize;
+    private final int blockCount;
+    private final long[] blockChars;
+    private final long offsetsPosition;
+    private final long postingsPosition;
+
+    /**
+     * Получатель триграмм при просмотре файла.
+     */
+    private interface TrigramVisitor {
+        void visit(int bucket, int block);
+    }
+
+    private TrigramIndex(Path source, FileChannel sourceChannel, FileChannel indexChannel,
+                         long sourceSize, int blockSize, int blockCount, long[] blockChars) {
+        this.source = source;
+        this.sourceChannel = sourceChannel;
+        this.indexChannel = indexChannel;
+        this.sourceSize = sourceSize;
+        this.blockSize = blockSize;
+        this.blockCount = blockCount;
+        this.blockChars = blockChars;
+        this.offsetsPosition = HEADER_SIZE + (long) (blockCount + 1) * Long.BYTES;
+        this.postingsPosition = offsetsPosition + (long) (BUCKETS + 1) * Long.BYTES;
+    }
+
+    /**
+     * Строит индекс файла с блоками по одному мегабайту.
+     *
+     * @param file      Исходный файл в кодировке UTF-8.
+     * @param indexFile Файл индекса.
+     * @throws IOException В случае ошибки чтения или записи.
+     */
+    public static void build(Path file, Path indexFile) throws IOException {
+        build(file, indexFile, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Строит индекс файла. Файл читается дважды: первый проход считает
+     * длины списков, второй заполняет их. Если списки не помещаются
+     * в память, второй проход повторяется для частей корзин.
+     *
+     * @param file      Исходный файл в кодировке UTF-8.
+     * @param indexFile Файл индекса.
+     * @param blockSize Размер блока в байтах; меньшие блоки сужают поиск,
+     *                  но увеличивают индекс.
+     * @throws IOException В случае ошибки чтения или записи.
+     */
+    public static void build(Path file, Path indexFile, int blockSize) throws IOException {
+        if (blockSize < 3) {
+            throw new IllegalArgumentException("Block size must be at least 3 bytes");
+        }
+        Path tmp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            long blocks = (size + blockSize - 1) / blockSize;
+            if (blocks > Integer.MAX_VALUE - 1) {
+                throw new IllegalArgumentException("Block size is too small for the file");
+            }
+            int blockCount = (int) blocks;
+
+            long[] blockChars = new long[blockCount + 1];
+            int[] lastBlock = new int[BUCKETS];
+            long[] offsets = new long[BUCKETS + 1];
+            Arrays.fill(lastBlock, -1);
+            scan(in, size, blockSize, blockChars, (bucket, block) -> {
+                if (lastBlock[bucket] != block) {
+                    lastBlock[bucket] = block;
+                    offsets[bucket + 1]++;
+                }
+            });
+            for (int i = 0; i < blockCount; i++) {
+                blockChars[i + 1] += blockChars[i];
+            }
+            for (int i = 0; i < BUCKETS; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putLong(size).putLong(modified)
+                    .putInt(blockSize).putInt(BUCKET_BITS).putInt(blockCount).putInt(0);
+            header.flip();
+            writeFully(out, header, 0);
+            writeLongs(out, blockChars, HEADER_SIZE);
+            long offsetsPosition = HEADER_SIZE + (long) (blockCount + 1) * Long.BYTES;
+            writeLongs(out, offsets, offsetsPosition);
+            long postingsPosition = offsetsPosition + (long) (BUCKETS + 1) * Long.BYTES;
+
+            int lo = 0;
+            while (lo < BUCKETS) {
+                int hi = lo + 1;
+                while (hi < BUCKETS && offsets[hi + 1] - offsets[lo] <= MAX_POSTINGS_IN_MEMORY) {
+                    hi++;
+                }
+                fillPostings(in, size, blockSize, offsets, lo, hi, out, postingsPosition);
+                lo = hi;
+            }
+            out.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Заполняет и записывает списки блоков для корзин {@code [lo, hi)}.
+     */
+    private static void fillPostings(FileChannel in, long size, int blockSize, long[] offsets,
+                                     int lo, int hi, FileChannel out,
+                                     long postingsPosition) throws IOException {
+        long base = offsets[lo];
+        int[] postings = new int[(int) (offsets[hi] - base)];
+        int[] cursor = new int[hi - lo];
+        int[] lastBlock = new int[hi - lo];
+        Arrays.fill(lastBlock, -1);
+        for (int i = lo; i < hi; i++) {
+            cursor[i - lo] = (int) (offsets[i] - base);
+        }
+        scan(in, size, blockSize, null, (bucket, block) -> {
+            int local = bucket - lo;
+            if (local >= 0 && bucket < hi && lastBlock[local] != block) {
+                lastBlock[local] = block;
+                postings[cursor[local]++] = block;
+            }
+        });
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        long position = postingsPosition + base * Integer.BYTES;
+        for (int i = 0; i < postings.length; ) {
+            buffer.clear();
+            while (i < postings.length && buffer.remaining() >= Integer.BYTES) {
+                buffer.putInt(postings[i++]);
+            }
+            buffer.flip();
+            position += writeFully(out, buffer, position);
+        }
+    }
+
+    /**
+     * Последовательно читает файл и передает каждую триграмму вместе
+     * с номером блока, в котором она начинается.
+     *
+     * @param blockChars Массив для количества символов в блоках
+     *                   (со сдвигом на один) или {@code null}.
+     */
+    private static void scan(FileChannel in, long size, int blockSize, long[] blockChars,
+                             TrigramVisitor visitor) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        byte[] bytes = buffer.array();
+        int trigram = 0;
+        long seen = 0;
+        int block = 0;
+        int inBlock = 0;
+        for (long position = 0; position < size; ) {
+            buffer.clear();
+            int n = in.read(buffer, position);
+            if (n <= 0) {
+                throw new IOException("The file was truncated during indexing");
+            }
+            position += n;
+            for (int i = 0; i < n; i++) {
+                if (inBlock == blockSize) {
+                    block++;
+                    inBlock = 0;
+                }
+                inBlock++;
+                byte b = bytes[i];
+                if (blockChars != null) {
+                    blockChars[block + 1] += ByteSearch.utf16Units(b);
+                }
+                trigram = ((trigram << 8) | (b & 0xFF)) & 0xFFFFFF;
+                if (++seen >= 3) {
+                    visitor.visit(bucketOf(trigram), (inBlock >= 3) ? block : block - 1);
+                }
+            }
+        }
+    }
+
+    private static int bucketOf(int trigram) {
+        return (trigram * 0x9E3779B1) >>> (Integer.SIZE - BUCKET_BITS);
+    }
+
+    /**
+     * Открывает индекс для поиска.
+     *
+     * @param file      Исходный файл.
+     * @param indexFile Файл индекса, построенный {@link #build}.
+     * @return Открытый индекс.
+     * @throws IOException если индекс поврежден, построен для другой версии
+     *                     файла или не может быть прочитан.
+     */
+    public static TrigramIndex open(Path file, Path indexFile) throws IOException {
+        FileChannel sourceChannel = FileChannel.open(file, StandardOpenOption.READ);
+        FileChannel indexChannel = null;
+        try {
+            indexChannel = FileChannel.open(indexFile, StandardOpenOption.READ);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(indexChannel, header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a trigram index: " + indexFile);
+            }
+            long size = header.getLong();
+            long modified = header.getLong();
+            int blockSize = header.getInt();
+            int bucketBits = header.getInt();
+            int blockCount = header.getInt();
+            if (size != sourceChannel.size()
+                    || modified != Files.getLastModifiedTime(file).toMillis()) {
+                throw new IOException("The index is stale: " + indexFile);
+            }
+            if (bucketBits != BUCKET_BITS) {
+                throw new IOException("Unsupported trigram index: " + indexFile);
+            }
+            long[] blockChars = new long[blockCount + 1];
+            ByteBuffer buffer = ByteBuffer.allocate(blockChars.length * Long.BYTES);
+            readFully(indexChannel, buffer, HEADER_SIZE);
+            buffer.flip().asLongBuffer().get(blockChars);
+            return new TrigramIndex(file, sourceChannel, indexChannel, size, blockSize,
+                    blockCount, blockChars);
+        } catch (IOException | RuntimeException e) {
+            sourceChannel.close();
+            if (indexChannel != null) {
+                indexChannel.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Возвращает количество блоков файла.
+     *
+     * @return Количество блоков.
+     */
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * Поиск подстроки с помощью индекса.
+     *
+     * @param substring Искомая подстрока.
+     * @return Список Long индексов начала каждого вхождения.
+     * @throws IOException В случае ошибки чтения файла или индекса.
+     */
+    public List<Long> find(String substring) throws IOException {
+        List<Long> indices = new ArrayList<>();
+        find(substring, indices::add);
+        return indices;
+    }
+
+    /**
+     * Поиск подстроки с помощью индекса с передачей каждого вхождения
+     * обработчику по возрастанию индекса. Если обработчик возвращает
+     * {@code false}, поиск прекращается.
+     *
+     * @param substring Искомая подстрока.
+     * @param action    Обработчик индекса начала вхождения.
+     * @return Количество переданных обработчику вхождений.
+     * @throws IOException В случае ошибки чтения файла или индекса.
+     */
+    public long find(String substring, LongPredicate action) throws IOException {
+        if (substring == null) {
+            throw new IllegalArgumentException("Substring cannot be null");
+        }
+        if (substring.isEmpty()) {
+            return 0;
+        }
+        ByteSearch byteSearch = new ByteSearch(substring);
+        BitSet candidates = candidateBlocks(substring.getBytes(StandardCharsets.UTF_8));
+        long[] found = {0};
+        boolean[] stopped = {false};
+        for (int block = candidates.nextSetBit(0); block >= 0 && !stopped[0];
+             block = candidates.nextSetBit(block + 1)) {
+            long start = (long) block * blockSize;
+            long mapped = Math.min(sourceSize - start, (long) blockSize + byteSearch.length() - 1);
+            MappedByteBuffer window =
+                    sourceChannel.map(FileChannel.MapMode.READ_ONLY, start, mapped);
+            int limit = (int) Math.min(blockSize, mapped);
+            byteSearch.scan(window, limit, blockChars[block], index -> {
+                if (stopped[0]) {
+                    return;
+                }
+                found[0]++;
+                stopped[0] = !action.test(index);
+            });
+        }
+        return found[0];
+    }
+
+    /**
+     * Выбирает блоки, в которых может начинаться вхождение.
+     *
+     * @param pattern Подстрока в UTF-8.
+     * @return Номера блоков-кандидатов.
+     */
+    BitSet candidateBlocks(byte[] pattern) throws IOException {
+        BitSet candidates = new BitSet(blockCount);
+        candidates.set(0, blockCount);
+        int trigrams = Math.min(pattern.length - 2, blockSize);
+        int[] buckets = new int[Math.max(trigrams, 0)];
+        for (int i = 0; i < trigrams; i++) {
+            int trigram = ((pattern[i] & 0xFF) << 16) | ((pattern[i + 1] & 0xFF) << 8)
+                    | (pattern[i + 2] & 0xFF);
+            buckets[i] = bucketOf(trigram);
+        }
+        ByteBuffer bounds = ByteBuffer.allocate(2 * Long.BYTES);
+        for (int bucket : Arrays.stream(buckets).distinct().toArray()) {
+            bounds.clear();
+            readFully(indexChannel, bounds, offsetsPosition + (long) bucket * Long.BYTES);
+            long from = bounds.getLong(0);
+            long to = bounds.getLong(Long.BYTES);
+            ByteBuffer postings = ByteBuffer.allocate((int) (to - from) * Integer.BYTES);
+            readFully(indexChannel, postings, postingsPosition + from * Integer.BYTES);
+            BitSet present = new BitSet(blockCount);
+            for (int i = 0; i < postings.limit(); i += Integer.BYTES) {
+                int block = postings.getInt(i);
+                present.set(block);
+                if (block > 0) {
+                    present.set(block - 1);
+                }
+            }
+            candidates.and(present);
+            if (candidates.isEmpty()) {
+                break;
+            }
+        }
+        return candidates;
+    }
+
+    private static void writeLongs(FileChannel out, long[] values,
+                                   long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        for (int i = 0; i < values.length; ) {
+            buffer.clear();
+            while (i < values.length && buffer.remaining() >= Long.BYTES) {
+                buffer.putLong(values[i++]);
+            }
+            buffer.flip();
+            position += writeFully(out, buffer, position);
+        }
+    }
+
+    private static int writeFully(FileChannel out, ByteBuffer buffer,
+                                  long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += out.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    private static void readFully(FileChannel in, ByteBuffer buffer,
+                                  long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int n = in.read(buffer, offset);
+            if (n < 0) {
+                throw new IOException("The trigram index is truncated");
+            }
+            offset += n;
+        }
+    }
+
+    /**
+     * Закрывает исходный файл и файл индекса.
+     *
+     * @throws IOException В случае ошибки закрытия.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            sourceChannel.close();
+        } finally {
+            indexChannel.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TrigramIndex[" + source + ", blocks=" + blockCount + "]";
+    }
+}
@@ -0,0 +1,118 @@
+package ru.nsu.ryzhneva;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Двусторонний алгоритм Крошмора-Перрена.
+ * Подстрока делится в критической позиции на две части: правая
+ * сравнивается слева направо, левая — справа налево. Для периодической
+ * подстроки запоминается уже проверенный префикс, поэтому каждый символ
+ * текста сравнивается не более двух раз.
+ */
+final class TwoWaySearch extends AbstractSearch {
+
+    /**
+     * Наибольшее число различных символов подстроки, при котором алгоритм
+     * выбирает {@link SearchAlgorithm#select}.
+     */
+    static final int MAX_SELECTED_ALPHABET = 4;
+
+    private final int critical;
+    private final int period;
+    private final boolean periodic;
+
+    /**
+     * Конструктор с расчетом критической факторизации.
+     *
+     * @param pattern Искомая подстрока.
+     */
+    TwoWaySearch(String pattern) {
+        super(pattern);
+        int[] less = maximalSuffix(false);
+        int[] greater = maximalSuffix(true);
+        int[] chosen = (less[0] > greater[0]) ? less : greater;
+        int ell = chosen[0];
+        int per = chosen[1];
+        this.critical = ell;
+        if (ell + 1 + per <= length && regionMatchesSelf(per, ell + 1)) {
+            this.periodic = true;
+            this.period = per;
+        } else {
+            this.periodic = false;
+            this.period = Math.max(ell + 1, length - ell - 1) + 1;
+        }
+    }
+
+    /**
+     * Находит максимальный суффикс подстроки и его период.
+     *
+     * @param reversed {@code true} для обратного порядка символов.
+     * @return Индекс перед началом суффикса и период.
+     */
+    private int[] maximalSuffix(boolean reversed) {
+        int ms = -1;
+        int j = 0;
+        int k = 1;
+        int p = 1;
+        while (j + k < length) {
+            char a = chars[j + k];
+            char b = chars[ms + k];
+            if (reversed ? a > b : a < b) {
+                j += k;
+                k = 1;
+                p = j - ms;
+            } else if (a == b) {
+                if (k != p) {
+                    k++;
+                } else {
+                    j += p;
+                    k = 1;
+                }
+            } else {
+                ms = j;
+                j = ms + 1;
+                k = 1;
+                p = 1;
+            }
+        }
+        return new int[]{ms, p};
+    }
+
+    private boolean regionMatchesSelf(int shift, int count) {
+        for (int i = 0; i < count; i++) {
+            if (chars[i] != chars[i + shift]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean search(char[] text, int from, int to, IntPredicate action) {
+        int end = to - length;
+        int j = from;
+        int memory = -1;
+        while (j <= end) {
+            int i = Math.max(critical, memory) + 1;
+            while (i < length && chars[i] == text[i + j]) {
+                i++;
+            }
+            if (i < length) {
+                j += i - critical;
+                memory = -1;
+                continue;
+            }
+            int lower = periodic ? memory : -1;
+            i = critical;
+            while (i > lower && chars[i] == text[i + j]) {
+                i--;
+            }
+            if (i <= lower && !action.test(j)) {
+                return false;
+            }
+            j += period;
+            memory = periodic ? length - period - 1 : -1;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,67 @@
+package ru.nsu.ryzhneva;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Алгоритм Бойера-Мура-Хорспула с подстановочным символом, который
+ * совпадает с любым символом текста. Подстановочный символ совпадает
+ * с последним символом окна при любом сдвиге, поэтому сдвиги
+ * ограничены расстоянием от последнего такого символа до конца подстроки.
+ */
+final class WildcardSearch extends AbstractSearch {
+
+    private static final int TABLE_SIZE = 256;
+
+    private final char wildcard;
+    private final int[] shift = new int[TABLE_SIZE];
+
+    /**
+     * Конструктор с расчетом таблицы сдвигов.
+     *
+     * @param pattern  Искомая подстрока.
+     * @param wildcard Подстановочный символ.
+     */
+    WildcardSearch(String pattern, char wildcard) {
+        super(pattern);
+        this.wildcard = wildcard;
+        int maxShift = length;
+        for (int i = 0; i < length - 1; i++) {
+            if (chars[i] == wildcard) {
+                maxShift = length - 1 - i;
+            }
+        }
+        Arrays.fill(shift, maxShift);
+        for (int i = 0; i < length - 1; i++) {
+            if (chars[i] != wildcard) {
+                shift[chars[i] & (TABLE_SIZE - 1)] = Math.min(maxShift, length - 1 - i);
+            }
+        }
+    }
+
+    @Override
+    public boolean search(char[] text, int from, int to, IntPredicate action) {
+        char last = chars[length - 1];
+        boolean anyLast = last == wildcard;
+        for (int i = from; i <= to - length; ) {
+            char c = text[i + length - 1];
+            if ((anyLast || c == last) && wildcardMatches(text, i)) {
+                if (!action.test(i)) {
+                    return false;
+                }
+            }
+            i += shift[c & (TABLE_SIZE - 1)];
+        }
+        return true;
+    }
+
+    private boolean wildcardMatches(char[] text, int offset) {
+        for (int i = 0; i < length - 1; i++) {
+            char p = chars[i];
+            if (p != wildcard && text[offset + i] != p) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
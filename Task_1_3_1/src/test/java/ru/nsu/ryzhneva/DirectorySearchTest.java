@@ -0,0 +1,142 @@
+package ru.nsu.ryzhneva;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Тесты для класса DirectorySearch.
+ */
+class DirectorySearchTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSearchesMatchingFiles() throws Exception {
+        Files.createDirectories(tempDir.resolve("2024"));
+        Files.writeString(tempDir.resolve("a.log"), "абракадабра", StandardCharsets.UTF_8);
+        Files.writeString(tempDir.resolve("2024/b.log"), "бра".repeat(1000),
+                StandardCharsets.UTF_8);
+        Files.writeString(tempDir.resolve("2024/c.txt"), "бра", StandardCharsets.UTF_8);
+
+        FindSubstring finder = new FindSubstring("бра");
+        Map<Path, List<Long>> matches = new ConcurrentHashMap<>();
+        Map<Path, Long> done = new ConcurrentHashMap<>();
+        DirectorySearch.Listener listener = new DirectorySearch.Listener() {
+            @Override
+            public void onMatch(Path file, long offset) {
+                matches.computeIfAbsent(file, f -> new ArrayList<>()).add(offset);
+            }
+
+            @Override
+            public void onFileDone(Path file, long count) {
+                done.put(file, count);
+            }
+        };
+
+        try (DirectorySearch search = new DirectorySearch(finder, 2)) {
+            DirectorySearch.Task task = search.search(tempDir, "*.log", listener);
+            Assertions.assertEquals(2, task.getFileCount());
+            Assertions.assertEquals(1002, task.await());
+            Assertions.assertTrue(task.isDone());
+        }
+        Assertions.assertEquals(2, matches.size());
+        for (Path file : List.of(tempDir.resolve("a.log"), tempDir.resolve("2024/b.log"))) {
+            Assertions.assertEquals(finder.find(file.toString()), matches.get(file));
+            Assertions.assertEquals(matches.get(file).size(), done.get(file));
+        }
+    }
+
+    @Test
+    void testCancellation() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            Files.writeString(tempDir.resolve(i + ".log"), "бра".repeat(100),
+                    StandardCharsets.UTF_8);
+        }
+        AtomicInteger seen = new AtomicInteger();
+        try (DirectorySearch search = new DirectorySearch(new FindSubstring("бра"), 1)) {
+            DirectorySearch.Task[] task = new DirectorySearch.Task[1];
+            synchronized (task) {
+                task[0] = search.search(tempDir, (file, offset) -> {
+                    seen.incrementAndGet();
+                    synchronized (task) {
+                        task[0].cancel();
+                    }
+                });
+            }
+            Assertions.assertEquals(1, task[0].await());
+            Assertions.assertTrue(task[0].isCancelled());
+        }
+        Assertions.assertEquals(1, seen.get());
+    }
+
+    @Test
+    void testCancellationWithoutMatches() throws Exception {
+        Path file = tempDir.resolve("big.log");
+        Files.writeString(file, "x".repeat(32 << 20), StandardCharsets.UTF_8);
+        List<Long> progress = new ArrayList<>();
+        try (DirectorySearch search = new DirectorySearch(new FindSubstring("y"), 1)) {
+            DirectorySearch.Task[] task = new DirectorySearch.Task[1];
+            synchronized (task) {
+                task[0] = search.search(tempDir, new DirectorySearch.Listener() {
+                    @Override
+                    public void onMatch(Path path, long offset) {
+                    }
+
+                    @Override
+                    public void onProgress(Path path, long bytesRead, long size) {
+                        progress.add(bytesRead);
+                        synchronized (task) {
+                            task[0].cancel();
+                        }
+                    }
+                });
+            }
+            Assertions.assertEquals(0, task[0].await());
+            Assertions.assertTrue(task[0].isCancelled());
+        }
+        Assertions.assertEquals(1, progress.size());
+        Assertions.assertTrue(progress.get(0) < 2 << 20);
+    }
+
+    @Test
+    void testProgressAndErrors() throws IOException, InterruptedException {
+        Path file = tempDir.resolve("big.log");
+        Files.writeString(file, "x".repeat(3 << 20), StandardCharsets.UTF_8);
+        List<Long> progress = new ArrayList<>();
+        try (DirectorySearch search = new DirectorySearch(new FindSubstring("y"), 1)) {
+            DirectorySearch.Task task = search.search(tempDir, new DirectorySearch.Listener() {
+                @Override
+                public void onMatch(Path path, long offset) {
+                }
+
+                @Override
+                public void onProgress(Path path, long bytesRead, long size) {
+                    Assertions.assertEquals(3 << 20, size);
+                    progress.add(bytesRead);
+                }
+            });
+            Assertions.assertEquals(0, task.await());
+        }
+        Assertions.assertTrue(progress.size() >= 3);
+        Assertions.assertEquals(3L << 20, progress.get(progress.size() - 1));
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new DirectorySearch(new FindSubstring("y"), 0));
+        try (DirectorySearch search = new DirectorySearch(new FindSubstring("y"))) {
+            Assertions.assertThrows(IOException.class,
+                    () -> search.search(tempDir.resolve("missing"), (path, offset) -> {
+                    }));
+        }
+    }
+}
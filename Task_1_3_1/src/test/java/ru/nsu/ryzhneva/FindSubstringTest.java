@@ -7,7 +7,11 @@ import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -32,6 +36,109 @@ class FindSubstringTest {
         Assertions.assertEquals(expected, actual);
     }
 
+    @Test
+    void testStreamingFind() throws IOException {
+        Path testFile = tempDir.resolve("input.txt");
+        Files.writeString(testFile, "абракадабра".repeat(1000), StandardCharsets.UTF_8);
+        FindSubstring finder = new FindSubstring("бра");
+
+        long[] sum = {0};
+        long count = finder.find(testFile.toString(), index -> {
+            sum[0] += index;
+            return true;
+        });
+        Assertions.assertEquals(2000, count);
+        Assertions.assertEquals(finder.find(testFile.toString()).stream()
+                .mapToLong(Long::longValue).sum(), sum[0]);
+
+        Assertions.assertEquals(1, finder.find(testFile.toString(), index -> false));
+        Assertions.assertArrayEquals(new long[]{1, 8, 12},
+                finder.findFirst(testFile.toString(), 3));
+        Assertions.assertEquals(2000, finder.findFirst(testFile.toString(), 5000).length);
+        Assertions.assertEquals(0, finder.findFirst(testFile.toString(), 0).length);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> finder.findFirst(testFile.toString(), -1));
+    }
+
+    @Test
+    void testExplicitAlgorithm() throws IOException {
+        Path testFile = tempDir.resolve("input.txt");
+        Files.writeString(testFile, "абракадабра", StandardCharsets.UTF_8);
+
+        for (SearchAlgorithm algorithm : List.of(SearchAlgorithm.rabinKarp("бра"),
+                SearchAlgorithm.horspool("бра"), SearchAlgorithm.twoWay("бра"))) {
+            FindSubstring finder = new FindSubstring("бра", algorithm);
+            Assertions.assertSame(algorithm, finder.getAlgorithm());
+            Assertions.assertEquals(List.of(1L, 8L), finder.find(testFile.toString()));
+        }
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new FindSubstring("абра", SearchAlgorithm.horspool("бра")));
+    }
+
+    @Test
+    void testSearchOptions() throws IOException {
+        Path testFile = tempDir.resolve("options.txt");
+        String[] parts = {"ай", "аи\u0306", "АЙ", "Аи\u0306", "x", "и", "\u0306"};
+        Random random = new Random(3);
+        StringBuilder content = new StringBuilder();
+        List<Long> exact = new ArrayList<>();
+        List<Long> ignoreCase = new ArrayList<>();
+        List<Long> normalized = new ArrayList<>();
+        List<Long> both = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            int part = random.nextInt(parts.length);
+            long offset = content.length();
+            if (part == 0) {
+                exact.add(offset);
+            }
+            if (part == 0 || part == 2) {
+                ignoreCase.add(offset);
+            }
+            if (part == 0 || part == 1) {
+                normalized.add(offset);
+            }
+            if (part < 4) {
+                both.add(offset);
+            }
+            content.append(parts[part]);
+        }
+        Files.writeString(testFile, content, StandardCharsets.UTF_8);
+
+        String file = testFile.toString();
+        Assertions.assertEquals(exact, new FindSubstring("ай").find(file));
+        Assertions.assertEquals(ignoreCase,
+                new FindSubstring("аЙ", SearchOption.IGNORE_CASE).find(file));
+        Assertions.assertEquals(normalized,
+                new FindSubstring("аи\u0306", SearchOption.NORMALIZE).find(file));
+        FindSubstring finder = new FindSubstring("ай",
+                SearchOption.IGNORE_CASE, SearchOption.NORMALIZE);
+        Assertions.assertEquals(both, finder.find(file));
+        Assertions.assertEquals(both, finder.findMapped(file));
+        Assertions.assertEquals(both, finder.findParallel(file));
+        long[] first = finder.findFirst(file, 3);
+        Assertions.assertEquals(both.subList(0, 3), List.of(first[0], first[1], first[2]));
+    }
+
+    @Test
+    void testWildcard() throws IOException {
+        Path testFile = tempDir.resolve("wildcard.txt");
+        Files.writeString(testFile, "абракадабра АКА", StandardCharsets.UTF_8);
+        String file = testFile.toString();
+
+        Assertions.assertEquals(List.of(3L, 5L),
+                new FindSubstring("а?а", SearchOption.WILDCARD).find(file));
+        Assertions.assertEquals(List.of(3L, 5L, 10L, 12L),
+                new FindSubstring("а?а", SearchOption.WILDCARD, SearchOption.IGNORE_CASE)
+                        .find(file));
+        Assertions.assertEquals(List.of(), new FindSubstring("а?а").find(file));
+        Assertions.assertEquals(List.of(0L, 7L),
+                new FindSubstring("абр", SearchOption.WILDCARD).find(file));
+        Assertions.assertEquals(Set.of(SearchOption.WILDCARD),
+                new FindSubstring("а?а", SearchOption.WILDCARD).getOptions());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new FindSubstring("а?а", (SearchOption) null));
+    }
+
     @Test
     void testEmptyAndNullSubstring() throws IOException {
         Assertions.assertThrows(IllegalArgumentException.class, () -> {
@@ -50,6 +157,33 @@ class FindSubstringTest {
                 "Поиск пустой строки должен возвращать пустой список");
     }
 
+    @Test
+    void testFindMappedAndParallelMatchFind() throws IOException {
+        Path testFile = tempDir.resolve("mapped.txt");
+        String[] parts = {"a", "б", "€", "😀", "ab", "аб"};
+        Random random = new Random(7);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            content.append(parts[random.nextInt(parts.length)]);
+        }
+        Files.writeString(testFile, content, StandardCharsets.UTF_8);
+
+        for (String substring : List.of("аб", "😀a", "б€😀", "abab")) {
+            FindSubstring finder = new FindSubstring(substring);
+            List<Long> expected = finder.find(testFile.toString());
+            Assertions.assertFalse(expected.isEmpty());
+            Assertions.assertEquals(expected, finder.findMapped(testFile.toString()));
+            Assertions.assertEquals(expected, finder.findMapped(testFile.toString(), 13));
+            Assertions.assertEquals(expected, finder.findParallel(testFile.toString()));
+            Assertions.assertEquals(expected, finder.findParallel(testFile.toString(),
+                    ForkJoinPool.commonPool(), 29));
+        }
+        Assertions.assertEquals(List.of(),
+                new FindSubstring("").findMapped(testFile.toString()));
+        Assertions.assertEquals(List.of(),
+                new FindSubstring("").findParallel(testFile.toString()));
+    }
+
     @Test
     void testLargeFile() throws IOException {
         Path largeFile = tempDir.resolve("file.txt");
@@ -0,0 +1,86 @@
+package ru.nsu.ryzhneva;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Тесты для класса MultiPatternFinder.
+ */
+class MultiPatternFinderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testOverlappingPatterns() throws IOException {
+        Path testFile = tempDir.resolve("input.txt");
+        Files.writeString(testFile, "ushers", StandardCharsets.UTF_8);
+
+        MultiPatternFinder finder = new MultiPatternFinder("he", "she", "his", "hers");
+        List<MultiPatternFinder.Match> expected = List.of(
+                new MultiPatternFinder.Match(1, 1),
+                new MultiPatternFinder.Match(0, 2),
+                new MultiPatternFinder.Match(3, 2));
+
+        Assertions.assertEquals(expected, finder.find(testFile.toString()));
+    }
+
+    @Test
+    void testDuplicateAndEmptyPatterns() throws IOException {
+        Path testFile = tempDir.resolve("input.txt");
+        Files.writeString(testFile, "абракадабра", StandardCharsets.UTF_8);
+
+        MultiPatternFinder finder = new MultiPatternFinder("бра", "", "бра");
+        List<MultiPatternFinder.Match> actual = finder.find(testFile.toString());
+
+        Assertions.assertEquals(4, actual.size());
+        Assertions.assertTrue(actual.contains(new MultiPatternFinder.Match(0, 8)));
+        Assertions.assertTrue(actual.contains(new MultiPatternFinder.Match(2, 1)));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new MultiPatternFinder("a", null));
+    }
+
+    @Test
+    void testMatchesSinglePatternFinder() throws IOException {
+        Random random = new Random(42);
+        String alphabet = "абвг";
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 50_000; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        Path testFile = tempDir.resolve("random.txt");
+        Files.writeString(testFile, text, StandardCharsets.UTF_8);
+
+        List<String> patterns = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            StringBuilder pattern = new StringBuilder();
+            int length = 1 + random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                pattern.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            patterns.add(pattern.toString());
+        }
+
+        List<MultiPatternFinder.Match> matches =
+                new MultiPatternFinder(patterns).find(testFile.toString());
+        for (int id = 0; id < patterns.size(); id++) {
+            List<Long> expected = new FindSubstring(patterns.get(id)).find(testFile.toString());
+            List<Long> actual = new ArrayList<>();
+            for (MultiPatternFinder.Match match : matches) {
+                if (match.patternId() == id) {
+                    actual.add(match.offset());
+                }
+            }
+            actual.sort(null);
+            Assertions.assertEquals(expected, actual, "Pattern " + patterns.get(id));
+        }
+    }
+}
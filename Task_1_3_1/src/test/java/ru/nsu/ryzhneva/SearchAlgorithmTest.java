@@ -0,0 +1,153 @@
+package ru.nsu.ryzhneva;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Тесты для алгоритмов поиска подстроки.
+ */
+class SearchAlgorithmTest {
+
+    private static final List<Function<String, SearchAlgorithm>> ALGORITHMS = List.of(
+            SearchAlgorithm::rabinKarp,
+            SearchAlgorithm::horspool,
+            SearchAlgorithm::twoWay,
+            SearchAlgorithm::candidateFilter,
+            pattern -> SearchAlgorithm.wildcard(pattern, '?'),
+            SearchAlgorithm::select);
+
+    private static List<Integer> naive(String text, String pattern, int from, int to) {
+        List<Integer> result = new ArrayList<>();
+        for (int i = from; i + pattern.length() <= to; i++) {
+            if (text.startsWith(pattern, i)) {
+                result.add(i);
+            }
+        }
+        return result;
+    }
+
+    private static List<Integer> search(SearchAlgorithm algorithm, String text, int from, int to) {
+        List<Integer> result = new ArrayList<>();
+        Assertions.assertTrue(algorithm.search(text.toCharArray(), from, to, result::add));
+        return result;
+    }
+
+    @Test
+    void testAgreeWithNaiveSearch() {
+        Random random = new Random(1);
+        for (String alphabet : List.of("ab", "abc", "абвгдеёжзийклмнопрстуфхцчшщъыьэюя")) {
+            for (int round = 0; round < 200; round++) {
+                StringBuilder text = new StringBuilder();
+                int textLength = random.nextInt(300);
+                for (int i = 0; i < textLength; i++) {
+                    text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                StringBuilder pattern = new StringBuilder();
+                int patternLength = 1 + random.nextInt(8);
+                for (int i = 0; i < patternLength; i++) {
+                    pattern.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                int from = (textLength == 0) ? 0 : random.nextInt(textLength);
+                int to = from + random.nextInt(textLength - from + 1);
+                List<Integer> expected = naive(text.toString(), pattern.toString(), from, to);
+                for (Function<String, SearchAlgorithm> factory : ALGORITHMS) {
+                    SearchAlgorithm algorithm = factory.apply(pattern.toString());
+                    Assertions.assertEquals(expected,
+                            search(algorithm, text.toString(), from, to), algorithm.toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testPeriodicPatterns() {
+        String text = "aaaaabaabaabaabaaab".repeat(20);
+        for (String pattern : List.of("aaaa", "abab", "aabaab", "baabaa", "aab")) {
+            List<Integer> expected = naive(text, pattern, 0, text.length());
+            for (Function<String, SearchAlgorithm> factory : ALGORITHMS) {
+                SearchAlgorithm algorithm = factory.apply(pattern);
+                Assertions.assertEquals(expected,
+                        search(algorithm, text, 0, text.length()), algorithm.toString());
+            }
+        }
+    }
+
+    @Test
+    void testEarlyStop() {
+        char[] text = "абракадабра".toCharArray();
+        for (Function<String, SearchAlgorithm> factory : ALGORITHMS) {
+            List<Integer> seen = new ArrayList<>();
+            boolean finished = factory.apply("бра").search(text, 0, text.length, index -> {
+                seen.add(index);
+                return false;
+            });
+            Assertions.assertFalse(finished);
+            Assertions.assertEquals(List.of(1), seen);
+        }
+    }
+
+    @Test
+    void testWildcard() {
+        Random random = new Random(2);
+        for (int round = 0; round < 500; round++) {
+            StringBuilder text = new StringBuilder();
+            int textLength = random.nextInt(200);
+            for (int i = 0; i < textLength; i++) {
+                text.append("абв".charAt(random.nextInt(3)));
+            }
+            StringBuilder pattern = new StringBuilder();
+            int patternLength = 1 + random.nextInt(6);
+            for (int i = 0; i < patternLength; i++) {
+                pattern.append("абв?".charAt(random.nextInt(4)));
+            }
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i + patternLength <= textLength; i++) {
+                boolean matches = true;
+                for (int j = 0; j < patternLength && matches; j++) {
+                    char p = pattern.charAt(j);
+                    matches = p == '?' || p == text.charAt(i + j);
+                }
+                if (matches) {
+                    expected.add(i);
+                }
+            }
+            SearchAlgorithm algorithm = SearchAlgorithm.wildcard(pattern.toString(), '?');
+            Assertions.assertEquals(expected, search(algorithm, text.toString(), 0, textLength),
+                    algorithm.toString() + " in " + text);
+        }
+    }
+
+    @Test
+    void testRabinKarpCounters() {
+        // При основании 2 окна "\u0000\u0002" и "\u0001\u0000" имеют одинаковый хэш.
+        RabinKarpSearch algorithm = new RabinKarpSearch("\u0001\u0000", 2);
+        Assertions.assertEquals(List.of(2),
+                search(algorithm, "\u0000\u0002\u0001\u0000", 0, 4));
+        Assertions.assertEquals(2, algorithm.getVerifications());
+        Assertions.assertEquals(1, algorithm.getFalsePositives());
+        algorithm.resetCounters();
+        Assertions.assertEquals(0, algorithm.getVerifications());
+
+        RabinKarpSearch random = SearchAlgorithm.rabinKarp("абракадабра");
+        String text = "абракадабра".repeat(1000);
+        Assertions.assertEquals(1000, search(random, text, 0, text.length()).size());
+        Assertions.assertEquals(0, random.getFalsePositives());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new RabinKarpSearch("бра", 1));
+    }
+
+    @Test
+    void testSelection() {
+        Assertions.assertInstanceOf(CandidateFilterSearch.class, SearchAlgorithm.select("бра"));
+        Assertions.assertInstanceOf(TwoWaySearch.class, SearchAlgorithm.select("ACGTTGCAACGT"));
+        Assertions.assertInstanceOf(HorspoolSearch.class, SearchAlgorithm.select("STRING"));
+        Assertions.assertEquals("STRING", SearchAlgorithm.select("STRING").pattern());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SearchAlgorithm.select(""));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> SearchAlgorithm.horspool(null));
+    }
+}
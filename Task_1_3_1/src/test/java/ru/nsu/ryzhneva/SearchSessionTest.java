@@ -0,0 +1,110 @@
+package ru.nsu.ryzhneva;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Тесты для класса SearchSession.
+ */
+class SearchSessionTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static void append(Path file, byte[] bytes) throws IOException {
+        Files.write(file, bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Test
+    void testReportsOnlyNewMatches() throws IOException {
+        Path file = tempDir.resolve("app.log");
+        byte[] content = "абракадабра абракадабра".getBytes(StandardCharsets.UTF_8);
+        SearchSession session = new SearchSession(new FindSubstring("бра"), file);
+        List<Long> matches = new ArrayList<>();
+
+        // Файл дописывается кусками по 5 байт, разрывая символы и подстроку.
+        for (int i = 0; i < content.length; i += 5) {
+            append(file, Arrays.copyOfRange(content, i, Math.min(i + 5, content.length)));
+            session.poll(matches::add);
+        }
+        Assertions.assertEquals(List.of(1L, 8L, 13L, 20L), matches);
+        Assertions.assertEquals(content.length, session.getBytePosition());
+        Assertions.assertEquals(23, session.getCharCount());
+        Assertions.assertEquals(0, session.poll(matches::add));
+    }
+
+    @Test
+    void testSaveAndRestore() throws IOException {
+        Path file = tempDir.resolve("app.log");
+        Path state = tempDir.resolve("app.state");
+        FindSubstring finder = new FindSubstring("бра");
+        byte[] content = "абракадабра".getBytes(StandardCharsets.UTF_8);
+        append(file, Arrays.copyOf(content, 17));
+
+        SearchSession session = new SearchSession(finder, file);
+        List<Long> matches = new ArrayList<>();
+        session.poll(matches::add);
+        session.save(state);
+
+        append(file, Arrays.copyOfRange(content, 17, content.length));
+        SearchSession restored = SearchSession.restore(finder, file, state);
+        restored.poll(matches::add);
+        Assertions.assertEquals(List.of(1L, 8L), matches);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> SearchSession.restore(new FindSubstring("абра"), file, state));
+    }
+
+    @Test
+    void testRestartsAfterTruncation() throws IOException {
+        Path file = tempDir.resolve("app.log");
+        Files.writeString(file, "абракадабра", StandardCharsets.UTF_8);
+        SearchSession session = new SearchSession(new FindSubstring("бра"), file);
+        Assertions.assertEquals(2, session.poll(index -> { }));
+
+        Files.writeString(file, "бра", StandardCharsets.UTF_8);
+        List<Long> matches = new ArrayList<>();
+        session.poll(matches::add);
+        Assertions.assertEquals(List.of(0L), matches);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new SearchSession(
+                new FindSubstring("бра", SearchOption.IGNORE_CASE), file));
+    }
+
+    @Test
+    void testFollow() throws Exception {
+        Path file = tempDir.resolve("app.log");
+        Files.writeString(file, "бра", StandardCharsets.UTF_8);
+        SearchSession session = new SearchSession(new FindSubstring("бра"), file);
+        List<Long> matches = new CopyOnWriteArrayList<>();
+        Thread follower = new Thread(() -> {
+            try {
+                session.follow(matches::add, 50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        follower.start();
+        append(file, " абра".getBytes(StandardCharsets.UTF_8));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (matches.size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        follower.interrupt();
+        follower.join(5000);
+        Assertions.assertFalse(follower.isAlive());
+        Assertions.assertEquals(List.of(0L, 5L), matches);
+    }
+}
@@ -0,0 +1,91 @@
+package ru.nsu.ryzhneva;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Тесты для класса TrigramIndex.
+ */
+class TrigramIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMatchesFullScan() throws IOException {
+        Path file = tempDir.resolve("archive.txt");
+        String[] parts = {"a", "b", "б", "р", "€", "😀", " "};
+        Random random = new Random(3);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            content.append(parts[random.nextInt(parts.length)]);
+        }
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        Path indexFile = tempDir.resolve("archive.tgi");
+        TrigramIndex.build(file, indexFile, 64);
+
+        List<String> substrings = new ArrayList<>(List.of("a", "бр", "😀", "б€😀", "a b"));
+        substrings.add(content.substring(5000, 5100));
+        try (TrigramIndex index = TrigramIndex.open(file, indexFile)) {
+            for (String substring : substrings) {
+                List<Long> expected = new FindSubstring(substring).find(file.toString());
+                Assertions.assertFalse(expected.isEmpty(), substring);
+                Assertions.assertEquals(expected, index.find(substring), substring);
+            }
+            Assertions.assertEquals(List.of(), index.find("abcabc"));
+            Assertions.assertEquals(List.of(), index.find(""));
+        }
+    }
+
+    @Test
+    void testNarrowsCandidateBlocks() throws IOException {
+        Path file = tempDir.resolve("log.txt");
+        String line = "INFO request handled in 5 ms\n";
+        StringBuilder content = new StringBuilder(line.repeat(20_000));
+        content.insert(300_000, "ERROR disk full\n");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        Path indexFile = tempDir.resolve("log.tgi");
+        TrigramIndex.build(file, indexFile, 4096);
+
+        try (TrigramIndex index = TrigramIndex.open(file, indexFile)) {
+            byte[] pattern = "disk full".getBytes(StandardCharsets.UTF_8);
+            Assertions.assertTrue(index.candidateBlocks(pattern).cardinality() <= 2);
+            Assertions.assertEquals(List.of(300_006L), index.find("disk full"));
+
+            long[] first = new long[1];
+            Assertions.assertEquals(1, index.find("INFO", offset -> {
+                first[0] = offset;
+                return false;
+            }));
+            Assertions.assertEquals(0, first[0]);
+        }
+    }
+
+    @Test
+    void testRejectsStaleIndex() throws IOException {
+        Path file = tempDir.resolve("data.txt");
+        Files.writeString(file, "абракадабра", StandardCharsets.UTF_8);
+        Path indexFile = tempDir.resolve("data.tgi");
+        TrigramIndex.build(file, indexFile);
+        try (TrigramIndex index = TrigramIndex.open(file, indexFile)) {
+            Assertions.assertEquals(1, index.getBlockCount());
+            Assertions.assertEquals(List.of(1L, 8L), index.find("бра"));
+        }
+
+        Files.writeString(file, "абракадабра!", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(0));
+        Assertions.assertThrows(IOException.class, () -> TrigramIndex.open(file, indexFile));
+        Assertions.assertThrows(IOException.class, () -> TrigramIndex.open(indexFile, file));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> TrigramIndex.build(file, indexFile, 2));
+    }
+}